@@ -60,6 +60,32 @@ const ApplicationDetails = () => {
         }
     };
 
+    const handleRetryEvaluation = async () => {
+        setProcessing(true);
+        try {
+            await api.post(`/hr/applications/${applicationId}/ai-evaluation/retry`);
+            toast.success("AI evaluation queued for retry");
+            fetchData(); // Refresh
+        } catch (error) {
+            toast.error("Failed to queue AI evaluation");
+        } finally {
+            setProcessing(false);
+        }
+    };
+
+    const handleEvaluateNow = async () => {
+        setProcessing(true);
+        try {
+            await api.post(`/hr/applications/${applicationId}/ai-evaluation/expedite`);
+            toast.success("AI evaluation moved to the front of the queue");
+            fetchData(); // Refresh
+        } catch (error) {
+            toast.error(error.response?.data?.error || "Failed to expedite AI evaluation");
+        } finally {
+            setProcessing(false);
+        }
+    };
+
     if (loading) return <div className="p-10 text-center">Loading...</div>;
     if (!app) return null;
 
@@ -103,6 +129,11 @@ const ApplicationDetails = () => {
                                 AI Score: <span className="text-blue-600 text-lg">{app.aiScore}</span>/100
                             </div>
                         )}
+                        {!app.aiScore && app.heuristicScore != null && (
+                            <div className="mt-2 text-sm font-bold text-amber-700" title="Keyword and completeness estimate written while the AI service was unavailable">
+                                Provisional Score: <span className="text-lg">{app.heuristicScore}</span>/100 (AI evaluation pending)
+                            </div>
+                        )}
                     </div>
                 </div>
             </div>
@@ -117,6 +148,33 @@ const ApplicationDetails = () => {
                             <h2 className="text-lg font-semibold text-gray-800">AI Evaluation</h2>
                         </div>
                         <div className="p-6 space-y-6">
+                            {app.aiEvaluationStatus === 'DEAD_LETTER' && (
+                                <div className="bg-red-50 p-4 rounded-lg border border-red-100 flex justify-between items-start">
+                                    <div>
+                                        <h3 className="text-sm font-bold text-red-800 mb-1">AI evaluation failed after {app.aiEvaluationAttempts} attempt(s)</h3>
+                                        <p className="text-sm text-red-700">{app.aiEvaluationError}</p>
+                                    </div>
+                                    <button
+                                        onClick={handleRetryEvaluation}
+                                        disabled={processing}
+                                        className="ml-4 px-3 py-1 text-sm font-medium text-red-700 border border-red-300 rounded-md hover:bg-red-100 disabled:opacity-50"
+                                    >
+                                        Retry
+                                    </button>
+                                </div>
+                            )}
+                            {app.aiEvaluationStatus === 'PENDING' && (
+                                <div className="bg-blue-50 p-4 rounded-lg border border-blue-100 flex justify-between items-center">
+                                    <p className="text-sm text-blue-800">AI evaluation is queued.</p>
+                                    <button
+                                        onClick={handleEvaluateNow}
+                                        disabled={processing}
+                                        className="ml-4 px-3 py-1 text-sm font-medium text-blue-700 border border-blue-300 rounded-md hover:bg-blue-100 disabled:opacity-50"
+                                    >
+                                        Evaluate now
+                                    </button>
+                                </div>
+                            )}
                             <div>
                                 <h3 className="text-sm font-medium text-gray-500 uppercase tracking-wider mb-2">Summary</h3>
                                 <p className="text-gray-800 leading-relaxed">{app.aiSummary || "No summary available."}</p>
@@ -19,6 +19,7 @@ const CreateJob = () => {
         employmentType: 'FULL_TIME',
         status: 'OPEN',
         applicationDeadline: '',
+        ensembleEnabled: false,
         questions: [
             { questionText: 'Tell us about yourself.', isMandatory: true, maxLength: 500, displayOrder: 1 }
         ]
@@ -162,6 +163,19 @@ const CreateJob = () => {
                                     onChange={handleChange}
                                 />
                             </div>
+
+                            <div className="md:col-span-2">
+                                <label className="inline-flex items-center text-sm text-gray-700">
+                                    <input
+                                        name="ensembleEnabled"
+                                        type="checkbox"
+                                        className="rounded border-gray-300 text-blue-600 focus:ring-blue-500 mr-2"
+                                        checked={formData.ensembleEnabled}
+                                        onChange={(e) => setFormData({ ...formData, ensembleEnabled: e.target.checked })}
+                                    />
+                                    Score applicants with several AI models and average them (slower, for senior roles)
+                                </label>
+                            </div>
                         </div>
                     </div>
 
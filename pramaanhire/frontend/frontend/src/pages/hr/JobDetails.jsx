@@ -414,7 +414,19 @@ const JobDetails = () => {
                                                     </span>
                                                 </td>
                                                 <td className="px-6 py-4 whitespace-nowrap">
-                                                    <div className="text-sm text-gray-900 font-bold">{app.aiScore || 'N/A'}</div>
+                                                    {app.aiEvaluationStatus === 'DEAD_LETTER' && !app.aiScore ? (
+                                                        <div className="text-sm text-red-600 font-bold">Failed</div>
+                                                    ) : !app.aiScore && app.heuristicScore != null ? (
+                                                        <div className="text-sm text-amber-700 font-bold" title="Provisional heuristic score; AI evaluation pending">
+                                                            {app.heuristicScore}*
+                                                        </div>
+                                                    ) : !app.aiScore && app.prescreenScore != null ? (
+                                                        <div className="text-sm text-gray-500" title="Provisional keyword match score; AI evaluation pending">
+                                                            ~{app.prescreenScore}
+                                                        </div>
+                                                    ) : (
+                                                        <div className="text-sm text-gray-900 font-bold">{app.aiScore || 'N/A'}</div>
+                                                    )}
                                                 </td>
                                                 <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-500">
                                                     {new Date(app.submittedAt).toLocaleDateString()}
@@ -3,11 +3,13 @@ package com.pramaanhire.pramaanhire;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.annotation.EnableScheduling;
 
+/**
+ * Runs the web application. Started with the {@code batch} profile it runs headless instead: see
+ * {@link com.pramaanhire.pramaanhire.service.BatchEvaluationRunner}.
+ */
 @SpringBootApplication
 @EnableAsync
-@EnableScheduling
 public class PramaanhireApplication {
 
 	public static void main(String[] args) {
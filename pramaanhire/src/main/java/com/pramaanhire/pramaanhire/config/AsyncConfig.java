@@ -0,0 +1,135 @@
+package com.pramaanhire.pramaanhire.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    public static final String AI_EVALUATION_EXECUTOR = "aiEvaluationExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String LLM_HEDGE_EXECUTOR = "llmHedgeExecutor";
+    public static final String LLM_ENSEMBLE_EXECUTOR = "llmEnsembleExecutor";
+    public static final String PDF_EXTRACTION_EXECUTOR = "pdfExtractionExecutor";
+
+    @Bean(name = AI_EVALUATION_EXECUTOR)
+    public ThreadPoolTaskExecutor aiEvaluationExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${ai.evaluation.executor.core-size:4}") int coreSize,
+            @Value("${ai.evaluation.executor.max-size:8}") int maxSize,
+            @Value("${ai.evaluation.executor.queue-capacity:100}") int queueCapacity) {
+
+        Counter rejected = Counter.builder("ai.evaluation.executor.rejected")
+                .description("Evaluations turned away because the queue was full")
+                .register(meterRegistry);
+
+        // Rejected evaluations are dropped on purpose: the application stays isAiProcessed=false
+        // and the retry scheduler picks it up once the pool has drained.
+        RejectedExecutionHandler leavePending = (task, pool) -> {
+            rejected.increment();
+            log.warn("AI evaluation queue is full ({} queued, {} active). Leaving application pending for retry.",
+                    pool.getQueue().size(), pool.getActiveCount());
+        };
+
+        return buildExecutor("ai-eval-", "ai.evaluation.executor", coreSize, maxSize, queueCapacity,
+                leavePending, meterRegistry);
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${email.executor.core-size:2}") int coreSize,
+            @Value("${email.executor.max-size:4}") int maxSize,
+            @Value("${email.executor.queue-capacity:500}") int queueCapacity) {
+
+        // Emails are never dropped; if the queue overflows the caller sends it inline
+        return buildExecutor("email-", "email.executor", coreSize, maxSize, queueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+    }
+
+    @Bean(name = LLM_HEDGE_EXECUTOR)
+    public ThreadPoolTaskExecutor llmHedgeExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${ai.llm.hedge.executor.core-size:2}") int coreSize,
+            @Value("${ai.llm.hedge.executor.max-size:16}") int maxSize) {
+
+        // No queue: a hedged call that cannot get a thread right away runs on the evaluation worker instead
+        return buildExecutor("llm-hedge-", "ai.llm.hedge.executor", coreSize, maxSize, 0,
+                new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+    }
+
+    @Bean(name = LLM_ENSEMBLE_EXECUTOR)
+    public ThreadPoolTaskExecutor llmEnsembleExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${ai.evaluation.ensemble.executor.core-size:4}") int coreSize,
+            @Value("${ai.evaluation.ensemble.executor.max-size:24}") int maxSize) {
+
+        // No queue and no caller-runs: a member that cannot get a thread right away is refused and counted as
+        // failed, since running it on the evaluation worker would serialize the fan-out past the deadline
+        return buildExecutor("llm-ensemble-", "ai.evaluation.ensemble.executor", coreSize, maxSize, 0,
+                new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    @Bean(name = PDF_EXTRACTION_EXECUTOR)
+    public ThreadPoolTaskExecutor pdfExtractionExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${pdf.extraction.executor.core-size:2}") int coreSize,
+            @Value("${pdf.extraction.executor.max-size:2}") int maxSize,
+            @Value("${pdf.extraction.executor.queue-capacity:20}") int queueCapacity) {
+
+        // PDF parsing is CPU- and heap-bound, so it never runs on the caller: a full queue is refused and
+        // PdfExtractionService turns that into a retryable "busy" error
+        return buildExecutor("pdf-extract-", "pdf.extraction.executor", coreSize, maxSize, queueCapacity,
+                new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+    }
+
+    private ThreadPoolTaskExecutor buildExecutor(String threadPrefix, String metricPrefix,
+                                                 int coreSize, int maxSize, int queueCapacity,
+                                                 RejectedExecutionHandler rejectionHandler,
+                                                 MeterRegistry meterRegistry) {
+        Timer waitTimer = Timer.builder(metricPrefix + ".wait")
+                .description("Time a task spent queued before a worker picked it up")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadPrefix);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectionHandler);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setTaskDecorator(task -> {
+            long enqueuedAt = System.nanoTime();
+            return () -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                task.run();
+            };
+        });
+        executor.initialize();
+
+        Gauge.builder(metricPrefix + ".queue.size", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Workers currently running a task")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .register(meterRegistry);
+
+        return executor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pramaanhire.pramaanhire.config;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Configuration
+public class LlmConfig {
+
+    public static final String SECONDARY_CHAT_CLIENT = "secondaryChatClient";
+
+    // Built once; ChatClient is thread-safe and all calls share the pooled connections from LlmHttpClientConfig
+    @Bean
+    @Primary
+    public ChatClient chatClient(ChatClient.Builder chatClientBuilder) {
+        return chatClientBuilder.build();
+    }
+
+    // Second OpenAI-compatible provider, only used to hedge slow calls to the primary endpoint
+    @Bean(name = SECONDARY_CHAT_CLIENT)
+    @ConditionalOnProperty(name = "ai.llm.hedge.enabled", havingValue = "true")
+    public ChatClient secondaryChatClient(
+            @Value("${ai.llm.hedge.base-url}") String baseUrl,
+            @Value("${ai.llm.hedge.api-key}") String apiKey,
+            @Value("${ai.llm.hedge.model}") String model,
+            @Value("${spring.ai.openai.chat.options.temperature:0.2}") Float temperature,
+            RestClient.Builder restClientBuilder,
+            WebClient.Builder webClientBuilder) {
+
+        // The Boot-managed builders carry the pooled HTTP clients
+        OpenAiApi api = new OpenAiApi(baseUrl, apiKey, restClientBuilder, webClientBuilder,
+                RetryUtils.DEFAULT_RESPONSE_ERROR_HANDLER);
+        OpenAiChatModel chatModel = new OpenAiChatModel(api,
+                OpenAiChatOptions.builder()
+                        .withModel(model)
+                        .withTemperature(temperature)
+                        .build());
+        return ChatClient.builder(chatModel).build();
+    }
+}
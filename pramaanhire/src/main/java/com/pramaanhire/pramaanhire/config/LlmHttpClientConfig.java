@@ -0,0 +1,141 @@
+package com.pramaanhire.pramaanhire.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Pooled, keep-alive HTTP clients for the LLM endpoints. Spring AI sends blocking calls through
+ * {@code RestClient} and streaming calls through {@code WebClient}; both builders are customized here,
+ * so the primary and secondary chat clients reuse warm TLS connections instead of opening new ones.
+ * Nothing else in the application uses these builders.
+ */
+@Configuration
+public class LlmHttpClientConfig {
+
+    @Value("${ai.llm.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${ai.llm.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${ai.llm.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    // Longest silence allowed while waiting for or reading a response
+    @Value("${ai.llm.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    // How long a caller waits for a free pooled connection
+    @Value("${ai.llm.http.acquire-timeout-ms:10000}")
+    private long acquireTimeoutMs;
+
+    @Value("${ai.llm.http.idle-timeout-seconds:30}")
+    private long idleTimeoutSeconds;
+
+    // Connections are recycled periodically so DNS changes behind the endpoint are picked up
+    @Value("${ai.llm.http.max-lifetime-minutes:5}")
+    private long maxLifetimeMinutes;
+
+    @Value("${ai.llm.http.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Bean
+    public PoolingHttpClientConnectionManager llmConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMinutes(maxLifetimeMinutes))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(idleTimeoutSeconds / 2))
+                        .build())
+                .build();
+
+        registerPoolGauge(meterRegistry, manager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, manager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, manager, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, manager, "max", PoolStats::getMax);
+        return manager;
+    }
+
+    @Bean
+    public CloseableHttpClient llmHttpClient(PoolingHttpClientConnectionManager llmConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(llmConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleTimeoutSeconds))
+                .build();
+    }
+
+    @Bean
+    public RestClientCustomizer llmRestClientCustomizer(CloseableHttpClient llmHttpClient) {
+        return builder -> builder.requestFactory(new HttpComponentsClientHttpRequestFactory(llmHttpClient));
+    }
+
+    // Pool metrics are published by Reactor Netty as reactor.netty.connection.provider.*{name=llm}
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider llmConnectionProvider() {
+        return ConnectionProvider.builder("llm")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(idleTimeoutSeconds))
+                .maxLifeTime(Duration.ofMinutes(maxLifetimeMinutes))
+                .evictInBackground(Duration.ofSeconds(idleTimeoutSeconds))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer llmWebClientCustomizer(ConnectionProvider llmConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(llmConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs))
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(readTimeoutMs, TimeUnit.MILLISECONDS)));
+        if (http2Enabled) {
+            // Negotiated over TLS (ALPN); endpoints that only speak HTTP/1.1 still work
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        return builder -> builder.clientConnector(connector);
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager manager,
+                                   String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("ai.llm.http.pool.connections", manager, m -> value.applyAsDouble(m.getTotalStats()))
+                .description("Pooled HTTP connections to the LLM endpoints (blocking calls)")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
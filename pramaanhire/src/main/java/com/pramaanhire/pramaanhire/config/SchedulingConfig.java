@@ -0,0 +1,15 @@
+package com.pramaanhire.pramaanhire.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs (queue polling, campaigns, cache eviction). Switched off for the headless batch run so
+ * it does not compete with a web instance for the same queue.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
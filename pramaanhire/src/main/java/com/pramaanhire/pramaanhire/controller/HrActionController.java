@@ -130,6 +130,36 @@ public class HrActionController {
         return ResponseEntity.ok(Map.of("message", "Application status updated successfully"));
     }
 
+    @PostMapping("/applications/{applicationId}/ai-evaluation/retry")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Re-queue an AI evaluation that was moved to the dead-letter state")
+    public ResponseEntity<?> retryAiEvaluation(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long applicationId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        hrActionService.retryAiEvaluation(applicationId, hrId);
+
+        return ResponseEntity.ok(Map.of("message", "AI evaluation queued for retry"));
+    }
+
+    @PostMapping("/applications/{applicationId}/ai-evaluation/expedite")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Evaluate an application now, ahead of the rest of the queue")
+    public ResponseEntity<?> evaluateNow(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long applicationId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        hrActionService.evaluateNow(applicationId, hrId);
+
+        return ResponseEntity.ok(Map.of("message", "AI evaluation moved to the front of the queue"));
+    }
+
     @GetMapping("/applications/{applicationId}/actions")
     @PreAuthorize("hasRole('HR')")
     @Operation(summary = "Get allowed status transitions for an application")
@@ -0,0 +1,106 @@
+package com.pramaanhire.pramaanhire.controller;
+
+import com.pramaanhire.pramaanhire.dto.ReEvaluationCampaignDto;
+import com.pramaanhire.pramaanhire.dto.ReEvaluationCampaignRequest;
+import com.pramaanhire.pramaanhire.service.ReEvaluationCampaignService;
+import com.pramaanhire.pramaanhire.util.JwtUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/hr")
+@RequiredArgsConstructor
+@Tag(name = "HR Re-evaluation Campaigns", description = "Endpoints for HR to re-score existing applications")
+@SecurityRequirement(name = "bearerAuth")
+public class ReEvaluationCampaignController {
+
+    private final ReEvaluationCampaignService campaignService;
+    private final JwtUtil jwtUtil;
+
+    @PostMapping("/jobs/{jobId}/re-evaluations")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Start re-evaluating a job's applications, optionally filtered by status and AI score")
+    public ResponseEntity<ReEvaluationCampaignDto> startCampaign(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long jobId,
+            @Valid @RequestBody ReEvaluationCampaignRequest request) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        return ResponseEntity.ok(campaignService.startCampaign(jobId, request, hrId));
+    }
+
+    @GetMapping("/jobs/{jobId}/re-evaluations")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "List re-evaluation campaigns for a job, newest first")
+    public ResponseEntity<List<ReEvaluationCampaignDto>> getCampaignsForJob(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long jobId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        return ResponseEntity.ok(campaignService.getCampaignsForJob(jobId, hrId));
+    }
+
+    @GetMapping("/re-evaluations/{campaignId}")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Get progress and estimated completion of a re-evaluation campaign")
+    public ResponseEntity<ReEvaluationCampaignDto> getCampaign(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long campaignId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        return ResponseEntity.ok(campaignService.getCampaign(campaignId, hrId));
+    }
+
+    @PostMapping("/re-evaluations/{campaignId}/pause")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Pause a running re-evaluation campaign")
+    public ResponseEntity<ReEvaluationCampaignDto> pauseCampaign(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long campaignId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        return ResponseEntity.ok(campaignService.pauseCampaign(campaignId, hrId));
+    }
+
+    @PostMapping("/re-evaluations/{campaignId}/resume")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Resume a paused re-evaluation campaign")
+    public ResponseEntity<ReEvaluationCampaignDto> resumeCampaign(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long campaignId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        return ResponseEntity.ok(campaignService.resumeCampaign(campaignId, hrId));
+    }
+
+    @PostMapping("/re-evaluations/{campaignId}/cancel")
+    @PreAuthorize("hasRole('HR')")
+    @Operation(summary = "Cancel a re-evaluation campaign; applications already queued are still evaluated")
+    public ResponseEntity<ReEvaluationCampaignDto> cancelCampaign(
+            @RequestHeader("Authorization") String token,
+            @PathVariable Long campaignId) {
+
+        String jwt = token.substring(7);
+        Long hrId = jwtUtil.extractClaim(jwt, claims -> claims.get("userId", Long.class));
+
+        return ResponseEntity.ok(campaignService.cancelCampaign(campaignId, hrId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiEvaluationResult {
+    private BigDecimal score;
+    private String summary;
+    private String strengths;
+    private String weaknesses;
+    private String improvementTips;
+    private BigDecimal confidenceScore;
+    private String modelUsed;
+}
@@ -0,0 +1,15 @@
+package com.pramaanhire.pramaanhire.dto;
+
+/**
+ * Due evaluation task as seen by the fair scheduler. Deadlines are relative to the time of the query and
+ * null when there is none; they are negative once passed.
+ */
+public interface ClaimCandidate {
+    Long getTaskId();
+    Long getJobId();
+    Long getHrId();
+    Integer getPriority();
+    Double getSecondsToDeadline();
+    Double getSecondsToJobDeadline();
+    Double getWaitingSeconds();
+}
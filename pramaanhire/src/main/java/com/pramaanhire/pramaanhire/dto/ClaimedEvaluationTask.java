@@ -0,0 +1,15 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimedEvaluationTask {
+    private Long applicationId;
+    private Long jobId;
+}
@@ -0,0 +1,20 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationPrompt {
+    private String text;
+    // The compacted resume and answers on their own, for use in multi-candidate prompts
+    private String candidateSection;
+    // The job description the candidate section was budgeted against (cut short if the resume needed room)
+    private String jobDescription;
+    private int rawTokens;
+    private int compactedTokens;
+}
@@ -1,6 +1,8 @@
 package com.pramaanhire.pramaanhire.dto;
 
 import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.EnsembleMemberOutcome;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,8 +34,12 @@ public class HrApplicationDetailDto {
     
     // AI Evaluation
     private BigDecimal aiScore;
+    private BigDecimal heuristicScore;
     private String aiSummary;
     private AiEvaluationDto aiEvaluation;
+    private EvaluationTaskStatus aiEvaluationStatus;
+    private Integer aiEvaluationAttempts;
+    private String aiEvaluationError;
     
     // Q&A
     private List<AnswerDetailDto> answers;
@@ -48,6 +54,22 @@ public class HrApplicationDetailDto {
         private String improvementTips;
         private BigDecimal confidenceScore;
         private String modelUsed;
+        private BigDecimal scoreDisagreement;
+        // Per-model answers when the job uses ensemble evaluation
+        private List<ModelResultDto> modelResults;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModelResultDto {
+        private String model;
+        private EnsembleMemberOutcome outcome;
+        private BigDecimal score;
+        private BigDecimal confidenceScore;
+        private String summary;
+        private Long latencyMs;
     }
 
     @Data
@@ -1,6 +1,7 @@
 package com.pramaanhire.pramaanhire.dto;
 
 import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,5 +21,8 @@ public class HrApplicationSummaryDto {
     private LocalDateTime submittedAt;
     private ApplicationStatus status;
     private BigDecimal aiScore;
+    private BigDecimal prescreenScore;
+    private BigDecimal heuristicScore;
     private String aiSummary;
+    private EvaluationTaskStatus aiEvaluationStatus;
 }
@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,6 +30,9 @@ public class JobDetailDto {
     private LocalDateTime applicationDeadline;
     private LocalDateTime createdAt;
     private List<JobQuestionDto> questions;
+    // Owner's view only; null, and so omitted, everywhere else
+    private BigDecimal prescreenThreshold;
+    private Boolean ensembleEnabled;
     private boolean hasApplied;
     private Long applicationId; // Added field to link to the specific application
 }
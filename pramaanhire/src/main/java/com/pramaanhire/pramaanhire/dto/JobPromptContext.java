@@ -0,0 +1,29 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * The job half of an evaluation prompt, rendered once per job version and shared by every evaluation.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class JobPromptContext {
+    private final Long jobId;
+    private final String title;
+    // Whitespace-normalized description
+    private final String description;
+    // Rendered role line and description, ready to be prefixed to a single-candidate prompt
+    private final String header;
+    private final int headerTokens;
+    // Question ID -> question text, in display order
+    private final Map<Long, String> questions;
+    // Hash of title, description and questions; part of the evaluation cache key
+    private final String contentHash;
+    // Evaluate with the model ensemble instead of the routing chain
+    private final boolean ensembleEnabled;
+}
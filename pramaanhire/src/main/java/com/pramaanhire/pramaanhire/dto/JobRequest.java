@@ -3,6 +3,8 @@ package com.pramaanhire.pramaanhire.dto;
 import com.pramaanhire.pramaanhire.enums.EmploymentType;
 import com.pramaanhire.pramaanhire.enums.JobStatus;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -11,6 +13,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -36,6 +39,14 @@ public class JobRequest {
     @Future(message = "Application deadline must be in the future")
     private LocalDateTime applicationDeadline;
 
+    @DecimalMin(value = "0", message = "Pre-screen threshold must be between 0 and 100")
+    @DecimalMax(value = "100", message = "Pre-screen threshold must be between 0 and 100")
+    // Null leaves the current threshold unchanged on update
+    private BigDecimal prescreenThreshold;
+
+    // Null leaves the current setting unchanged on update
+    private Boolean ensembleEnabled;
+
     @Valid
     private List<JobQuestionDto> questions;
 }
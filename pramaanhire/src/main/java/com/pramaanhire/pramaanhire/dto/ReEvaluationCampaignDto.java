@@ -0,0 +1,35 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.CampaignStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReEvaluationCampaignDto {
+    private Long id;
+    private Long jobId;
+    private CampaignStatus status;
+    private List<ApplicationStatus> statuses;
+    private BigDecimal minScore;
+    private BigDecimal maxScore;
+    private int ratePerMinute;
+    private int totalApplications;
+    private int enqueued;
+    private long completed;
+    private long failed;
+    private long inProgress;
+    private int percentComplete;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime estimatedCompletionAt;
+}
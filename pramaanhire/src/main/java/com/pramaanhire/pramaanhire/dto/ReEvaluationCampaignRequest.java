@@ -0,0 +1,36 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReEvaluationCampaignRequest {
+    // Only applications in these statuses; empty means all
+    private List<ApplicationStatus> statuses;
+
+    @DecimalMin(value = "0", message = "Score bounds must be between 0 and 100")
+    @DecimalMax(value = "100", message = "Score bounds must be between 0 and 100")
+    private BigDecimal minScore;
+
+    @DecimalMin(value = "0", message = "Score bounds must be between 0 and 100")
+    @DecimalMax(value = "100", message = "Score bounds must be between 0 and 100")
+    private BigDecimal maxScore;
+
+    // Applications queued per minute; the configured default when omitted
+    @Min(value = 1, message = "Rate must be at least 1 per minute")
+    @Max(value = 600, message = "Rate must be at most 600 per minute")
+    private Integer ratePerMinute;
+}
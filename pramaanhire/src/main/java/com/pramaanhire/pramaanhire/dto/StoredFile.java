@@ -0,0 +1,24 @@
+package com.pramaanhire.pramaanhire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * An upload as written to disk, with the SHA-256 computed while it was being copied.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class StoredFile {
+    // "<sha256><extension>": what Application.resumeUrl holds and what the file is loaded by
+    private final String fileName;
+    private final Path path;
+    private final long size;
+    // Lowercase hex
+    private final String sha256;
+    // The same bytes were already stored; nothing new was written
+    private final boolean duplicate;
+}
@@ -51,6 +51,17 @@ public class AiEvaluation {
     @Column(nullable = false, length = 50)
     private String modelUsed;
 
+    // Estimated prompt size before and after resume compaction
+    private Integer promptTokensRaw;
+
+    private Integer promptTokensCompacted;
+
+    // Set for ensemble evaluations: how many models counted, and the standard deviation of their scores
+    private Integer ensembleSize;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal scoreDisagreement;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,70 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "ai_evaluation_cache",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = "cache_key")
+    },
+    indexes = {
+        @Index(name = "idx_eval_cache_last_used", columnList = "last_used_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AiEvaluationCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    // SHA-256 over prompt version, model, job, resume text and answers
+    @NotBlank(message = "Cache key is required")
+    @Column(name = "cache_key", nullable = false, length = 64)
+    private String cacheKey;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal score;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(columnDefinition = "TEXT")
+    private String strengths;
+
+    @Column(columnDefinition = "TEXT")
+    private String weaknesses;
+
+    @Column(columnDefinition = "TEXT")
+    private String improvementTips;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal confidenceScore;
+
+    @Column(length = 50)
+    private String modelUsed;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long hitCount = 0;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastUsedAt;
+}
@@ -0,0 +1,72 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import com.pramaanhire.pramaanhire.enums.EnsembleMemberOutcome;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One ensemble member's answer for an evaluation. Members that failed or missed the deadline are kept too
+ * (without a score) so HR can see which models the aggregate is based on.
+ */
+@Entity
+@Table(
+    name = "ai_evaluation_model_results",
+    indexes = {
+        @Index(name = "idx_model_result_evaluation", columnList = "ai_evaluation_id")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AiEvaluationModelResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Evaluation is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ai_evaluation_id", nullable = false)
+    @ToString.Exclude
+    private AiEvaluation evaluation;
+
+    @NotBlank(message = "Model is required")
+    @Column(nullable = false, length = 50)
+    private String model;
+
+    @NotNull(message = "Outcome is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EnsembleMemberOutcome outcome;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal score;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal confidenceScore;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(columnDefinition = "TEXT")
+    private String strengths;
+
+    @Column(columnDefinition = "TEXT")
+    private String weaknesses;
+
+    private Long latencyMs;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,91 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "ai_evaluation_tasks",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = "application_id")
+    },
+    indexes = {
+        @Index(name = "idx_eval_task_claim", columnList = "status, next_attempt_at")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AiEvaluationTask {
+
+    public static final int PRIORITY_LOW = -10;
+    public static final int PRIORITY_NORMAL = 0;
+    // HR asked for this evaluation explicitly; claimed ahead of everything else
+    public static final int PRIORITY_EXPRESS = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Application is required")
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "application_id", nullable = false)
+    @ToString.Exclude
+    private Application application;
+
+    // The re-evaluation campaign that last queued this task; kept after completion for its progress counts
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "campaign_id")
+    @ToString.Exclude
+    private ReEvaluationCampaign campaign;
+
+    // The pending run must replace the application's existing evaluation; cleared once it completes
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean reEvaluation = false;
+
+    @NotNull(message = "Status is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EvaluationTaskStatus status;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // Higher values are claimed first
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int priority = PRIORITY_NORMAL;
+
+    @NotNull(message = "Next attempt time is required")
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Instance currently holding the task; the lease lapses if that instance dies mid-evaluation
+    @Column(length = 100)
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
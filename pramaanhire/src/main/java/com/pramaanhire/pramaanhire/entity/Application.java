@@ -20,7 +20,8 @@ import java.util.List;
         @UniqueConstraint(columnNames = {"job_id", "candidate_id"})
     },
     indexes = {
-        @Index(name = "idx_application_status", columnList = "status")
+        @Index(name = "idx_application_status", columnList = "status"),
+        @Index(name = "idx_application_resume_sha256", columnList = "resume_sha256")
     }
 )
 @Getter
@@ -52,6 +53,10 @@ public class Application {
     @Column(nullable = false, length = 500)
     private String resumeUrl;
 
+    // SHA-256 of the uploaded PDF, computed while it was stored
+    @Column(length = 64)
+    private String resumeSha256;
+
     @NotNull(message = "Status is required")
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -63,6 +68,14 @@ public class Application {
     @Column(columnDefinition = "TEXT")
     private String aiSummary;
 
+    // Provisional lexical relevance score shown until the AI evaluation lands
+    @Column(precision = 5, scale = 2)
+    private BigDecimal prescreenScore;
+
+    // Deterministic fallback score written while the LLM was unavailable; aiScore supersedes it
+    @Column(precision = 5, scale = 2)
+    private BigDecimal heuristicScore;
+
     @Column(columnDefinition = "TEXT")
     private String hrNotes;
 
@@ -0,0 +1,79 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.BatchRunStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of an offline batch evaluation run. Applications are processed in ID order and
+ * {@code lastApplicationId} only moves past an ID once it and every lower ID have been written or given
+ * up on, so a run that is killed resumes from here without skipping anything.
+ */
+@Entity
+@Table(
+    name = "batch_evaluation_runs",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = "run_name")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class BatchEvaluationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotBlank(message = "Run name is required")
+    @Column(name = "run_name", nullable = false, length = 100)
+    private String runName;
+
+    // Filter; a null job or status means all
+    private Long jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ApplicationStatus statusFilter;
+
+    @Column(nullable = false)
+    private boolean onlyUnprocessed;
+
+    @NotNull(message = "Status is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BatchRunStatus status;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long lastApplicationId = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long succeededCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long failedCount = 0;
+
+    private LocalDateTime finishedAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
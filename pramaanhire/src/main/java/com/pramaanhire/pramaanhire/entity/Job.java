@@ -9,6 +9,7 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -62,6 +63,16 @@ public class Job {
 
     private LocalDateTime applicationDeadline;
 
+    // Pre-screen score (0-100) below which applicants wait at low priority for the LLM; null uses the default
+    @Column(precision = 5, scale = 2)
+    private BigDecimal prescreenThreshold;
+
+    // Score every applicant with several models in parallel and keep the average (meant for senior roles)
+    // The default lets schema update add the column to a jobs table that already has rows
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean ensembleEnabled = false;
+
     @Builder.Default
     @Column(nullable = false)
     private boolean isActive = true;
@@ -0,0 +1,55 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Corpus statistics for BM25 pre-screening, one row per job. Per-term document frequencies live in
+ * {@link JobScreeningTerm} and only cover the terms of the job description, so both are reset whenever
+ * the description changes.
+ */
+@Entity
+@Table(
+    name = "job_screening_stats",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = "job_id")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class JobScreeningStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Job is required")
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    @ToString.Exclude
+    private Job job;
+
+    @Column(length = 64)
+    private String descriptionHash;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long documentCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long totalDocumentLength = 0;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * Number of a job's applicants whose resume contains one term of the job description. Kept as one row
+ * per term so a submission only bumps the counters it touches.
+ */
+@Entity
+@Table(
+    name = "job_screening_terms",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"job_id", "term"})
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class JobScreeningTerm {
+
+    public static final int MAX_TERM_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Job is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    @ToString.Exclude
+    private Job job;
+
+    @NotBlank(message = "Term is required")
+    @Column(nullable = false, length = MAX_TERM_LENGTH)
+    private String term;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long documentCount = 0;
+}
@@ -0,0 +1,93 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import com.pramaanhire.pramaanhire.enums.CampaignStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Re-scores the existing applications of one job, oldest first, at a fixed rate. All progress lives in
+ * this row (the cursor and the time of the last enqueue), so a campaign carries on after a restart.
+ */
+@Entity
+@Table(
+    name = "re_evaluation_campaigns",
+    indexes = {
+        @Index(name = "idx_campaign_status", columnList = "status")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ReEvaluationCampaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Job is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "job_id", nullable = false)
+    @ToString.Exclude
+    private Job job;
+
+    @NotNull(message = "Creator is required")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    @ToString.Exclude
+    private User createdBy;
+
+    @NotNull(message = "Status is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CampaignStatus status;
+
+    // Optional filter: comma separated application statuses; null means all
+    @Column(length = 200)
+    private String statusFilter;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal minScore;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal maxScore;
+
+    @Column(nullable = false)
+    private int ratePerMinute;
+
+    // Applications matching the filter when the campaign was started
+    @Column(nullable = false)
+    private int totalApplications;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int enqueuedCount = 0;
+
+    // Cursor: highest application ID handed to the queue so far
+    @Builder.Default
+    @Column(nullable = false)
+    private long lastApplicationId = 0;
+
+    private LocalDateTime lastEnqueueAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// Kept out of the applications table so listing and ranking queries never drag resume bodies along
+@Entity
+@Table(
+    name = "resume_texts",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = "application_id")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ResumeText {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Application is required")
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "application_id", nullable = false)
+    @ToString.Exclude
+    private Application application;
+
+    // GZIP-compressed UTF-8 text as extracted by PDFBox
+    @NotNull(message = "Text is required")
+    @Column(nullable = false, columnDefinition = "bytea")
+    @ToString.Exclude
+    private byte[] compressedText;
+
+    @Column(nullable = false)
+    private int charCount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
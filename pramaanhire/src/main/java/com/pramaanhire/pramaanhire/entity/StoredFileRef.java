@@ -0,0 +1,57 @@
+package com.pramaanhire.pramaanhire.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference count for one content-addressed upload. Every application that points at the file holds one
+ * reference; identical uploads share the file and only bump the count.
+ */
+@Entity
+@Table(
+    name = "stored_files",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = "file_name")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class StoredFileRef {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    // "<sha256><extension>", as stored in Application.resumeUrl
+    @NotBlank(message = "File name is required")
+    @Column(name = "file_name", nullable = false, length = 80)
+    private String fileName;
+
+    @NotBlank(message = "Hash is required")
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
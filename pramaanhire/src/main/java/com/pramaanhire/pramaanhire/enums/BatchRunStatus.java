@@ -0,0 +1,6 @@
+package com.pramaanhire.pramaanhire.enums;
+
+public enum BatchRunStatus {
+    RUNNING,
+    COMPLETED
+}
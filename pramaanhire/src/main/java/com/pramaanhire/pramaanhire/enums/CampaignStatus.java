@@ -0,0 +1,8 @@
+package com.pramaanhire.pramaanhire.enums;
+
+public enum CampaignStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    CANCELLED
+}
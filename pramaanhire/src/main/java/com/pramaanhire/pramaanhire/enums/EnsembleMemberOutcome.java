@@ -0,0 +1,7 @@
+package com.pramaanhire.pramaanhire.enums;
+
+public enum EnsembleMemberOutcome {
+    COMPLETED,
+    FAILED,
+    TIMED_OUT
+}
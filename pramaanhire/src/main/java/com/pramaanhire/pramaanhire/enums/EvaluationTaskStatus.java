@@ -0,0 +1,8 @@
+package com.pramaanhire.pramaanhire.enums;
+
+public enum EvaluationTaskStatus {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED,
+    DEAD_LETTER
+}
@@ -1,5 +1,6 @@
 package com.pramaanhire.pramaanhire.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -35,6 +36,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(Map.of("error", "Invalid email or password"), HttpStatus.UNAUTHORIZED);
     }
 
+    // Raised when resume processing has no capacity left; the upload can simply be retried
+    @ExceptionHandler(TransientEvaluationException.class)
+    public ResponseEntity<Map<String, String>> handleTransientEvaluationException(TransientEvaluationException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
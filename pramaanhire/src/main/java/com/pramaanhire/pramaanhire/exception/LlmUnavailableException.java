@@ -0,0 +1,7 @@
+package com.pramaanhire.pramaanhire.exception;
+
+public class LlmUnavailableException extends TransientEvaluationException {
+    public LlmUnavailableException(String message) {
+        super(message);
+    }
+}
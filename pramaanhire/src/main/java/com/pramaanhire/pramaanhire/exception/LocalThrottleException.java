@@ -0,0 +1,15 @@
+package com.pramaanhire.pramaanhire.exception;
+
+/**
+ * The call never left this instance: no rate-limit permit became available in time. Says nothing about
+ * the health of the LLM endpoint, so it must not count against the circuit breaker.
+ */
+public class LocalThrottleException extends TransientEvaluationException {
+    public LocalThrottleException(String message) {
+        super(message);
+    }
+
+    public LocalThrottleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pramaanhire.pramaanhire.exception;
+
+public class PermanentEvaluationException extends RuntimeException {
+    public PermanentEvaluationException(String message) {
+        super(message);
+    }
+
+    public PermanentEvaluationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
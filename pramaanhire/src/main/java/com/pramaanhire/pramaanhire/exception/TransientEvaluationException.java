@@ -0,0 +1,11 @@
+package com.pramaanhire.pramaanhire.exception;
+
+public class TransientEvaluationException extends RuntimeException {
+    public TransientEvaluationException(String message) {
+        super(message);
+    }
+
+    public TransientEvaluationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,45 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.AiEvaluationCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AiEvaluationCacheRepository extends JpaRepository<AiEvaluationCacheEntry, Long> {
+
+    Optional<AiEvaluationCacheEntry> findByCacheKey(String cacheKey);
+
+    // A concurrent insert of the same key is skipped by the database instead of failing the transaction
+    @Modifying
+    @Query(value = "INSERT INTO ai_evaluation_cache (cache_key, score, summary, strengths, weaknesses, improvement_tips, " +
+            "confidence_score, model_used, hit_count, created_at, last_used_at) " +
+            "VALUES (:cacheKey, :score, :summary, :strengths, :weaknesses, :improvementTips, " +
+            ":confidenceScore, :modelUsed, 0, :now, :now) " +
+            "ON CONFLICT (cache_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("cacheKey") String cacheKey,
+                       @Param("score") BigDecimal score,
+                       @Param("summary") String summary,
+                       @Param("strengths") String strengths,
+                       @Param("weaknesses") String weaknesses,
+                       @Param("improvementTips") String improvementTips,
+                       @Param("confidenceScore") BigDecimal confidenceScore,
+                       @Param("modelUsed") String modelUsed,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM AiEvaluationCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+
+    // Drops the least recently used entries beyond the size limit
+    @Modifying
+    @Query(value = "DELETE FROM ai_evaluation_cache WHERE id IN (" +
+            "SELECT id FROM ai_evaluation_cache ORDER BY last_used_at DESC OFFSET :maxEntries)", nativeQuery = true)
+    int trimToSize(@Param("maxEntries") int maxEntries);
+}
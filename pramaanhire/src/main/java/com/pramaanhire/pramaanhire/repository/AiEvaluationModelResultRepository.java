@@ -0,0 +1,20 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.AiEvaluationModelResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AiEvaluationModelResultRepository extends JpaRepository<AiEvaluationModelResult, Long> {
+
+    List<AiEvaluationModelResult> findByEvaluationIdOrderByModel(Long evaluationId);
+
+    @Modifying
+    @Query("DELETE FROM AiEvaluationModelResult r WHERE r.evaluation.id = :evaluationId")
+    void deleteByEvaluationId(@Param("evaluationId") Long evaluationId);
+}
@@ -0,0 +1,80 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.dto.ClaimCandidate;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AiEvaluationTaskRepository extends JpaRepository<AiEvaluationTask, Long> {
+
+    Optional<AiEvaluationTask> findByApplicationId(Long applicationId);
+
+    List<AiEvaluationTask> findByApplicationIdIn(Collection<Long> applicationIds);
+
+    long countByCampaignIdAndStatus(Long campaignId, EvaluationTaskStatus status);
+
+    long countByCampaignIdAndStatusIn(Long campaignId, Collection<EvaluationTaskStatus> statuses);
+
+    /**
+     * Due tasks with what the fair scheduler needs to pick among them. Each job contributes at most
+     * {@code perJob} of its most urgent tasks, so one very large job cannot crowd the others out of the window.
+     * A task's deadline is its job's application deadline or {@code targetSeconds} after it was queued,
+     * whichever comes first. Low-priority tasks that have waited {@code lowMaxWaitSeconds} or whose job
+     * deadline is within {@code urgentSeconds} rank as normal, as {@code FairTaskSelector} schedules them.
+     */
+    @Query(value = "SELECT c.task_id AS taskId, c.job_id AS jobId, c.hr_id AS hrId, c.priority AS priority, " +
+            "       c.task_deadline_seconds AS secondsToDeadline, c.job_deadline_seconds AS secondsToJobDeadline, " +
+            "       c.waiting_seconds AS waitingSeconds " +
+            "FROM (SELECT t.id AS task_id, a.job_id, j.hr_id, t.priority, " +
+            "             EXTRACT(EPOCH FROM (LEAST(j.application_deadline, t.created_at + make_interval(secs => :targetSeconds)) - :now)) AS task_deadline_seconds, " +
+            "             EXTRACT(EPOCH FROM (j.application_deadline - :now)) AS job_deadline_seconds, " +
+            "             EXTRACT(EPOCH FROM (:now - CASE WHEN t.status = 'PENDING' THEN t.next_attempt_at ELSE t.lease_expires_at END)) AS waiting_seconds, " +
+            "             p.rank_priority, " +
+            "             ROW_NUMBER() OVER (PARTITION BY a.job_id ORDER BY p.rank_priority DESC, " +
+            "                 LEAST(j.application_deadline, t.created_at + make_interval(secs => :targetSeconds)), t.next_attempt_at) AS job_rank " +
+            "      FROM ai_evaluation_tasks t " +
+            "      JOIN applications a ON a.id = t.application_id " +
+            "      JOIN jobs j ON j.id = a.job_id " +
+            "      CROSS JOIN LATERAL (SELECT CASE WHEN t.priority < 0 AND (" +
+            "          EXTRACT(EPOCH FROM (:now - CASE WHEN t.status = 'PENDING' THEN t.next_attempt_at ELSE t.lease_expires_at END)) >= :lowMaxWaitSeconds " +
+            "          OR j.application_deadline <= :now + make_interval(secs => :urgentSeconds)) " +
+            "          THEN 0 ELSE t.priority END AS rank_priority) p " +
+            "      WHERE (t.status = 'PENDING' AND t.next_attempt_at <= :now) " +
+            "         OR (t.status = 'IN_PROGRESS' AND t.lease_expires_at < :now)) c " +
+            "WHERE c.job_rank <= :perJob " +
+            "ORDER BY c.rank_priority DESC, c.job_rank " +
+            "LIMIT :window", nativeQuery = true)
+    List<ClaimCandidate> findClaimCandidates(@Param("now") LocalDateTime now,
+                                             @Param("targetSeconds") long targetSeconds,
+                                             @Param("lowMaxWaitSeconds") double lowMaxWaitSeconds,
+                                             @Param("urgentSeconds") double urgentSeconds,
+                                             @Param("perJob") int perJob,
+                                             @Param("window") int window);
+
+    // Rows locked by another instance are skipped rather than waited on, so concurrent pollers never claim the same task.
+    // The due condition is checked again because the candidates were read without a lock.
+    @Query(value = "SELECT * FROM ai_evaluation_tasks " +
+            "WHERE id IN (:ids) " +
+            "AND ((status = 'PENDING' AND next_attempt_at <= :now) " +
+            "   OR (status = 'IN_PROGRESS' AND lease_expires_at < :now)) " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<AiEvaluationTask> lockClaimable(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // One-off migration for applications submitted before the task table existed
+    @Modifying
+    @Query(value = "INSERT INTO ai_evaluation_tasks (application_id, status, attempts, priority, next_attempt_at, created_at, updated_at) " +
+            "SELECT a.id, 'PENDING', 0, 0, :now, :now, :now FROM applications a " +
+            "WHERE a.is_ai_processed = false " +
+            "AND NOT EXISTS (SELECT 1 FROM ai_evaluation_tasks t WHERE t.application_id = a.id)", nativeQuery = true)
+    int backfillMissingTasks(@Param("now") LocalDateTime now);
+}
@@ -1,21 +1,60 @@
 package com.pramaanhire.pramaanhire.repository;
 
 import com.pramaanhire.pramaanhire.entity.Application;
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long>, JpaSpecificationExecutor<Application> {
     boolean existsByJobIdAndCandidateId(Long jobId, Long candidateId);
+    boolean existsByResumeUrl(String resumeUrl);
     Optional<Application> findByJobIdAndCandidateId(Long jobId, Long candidateId); // Added to fetch ID
     Page<Application> findByCandidateId(Long candidateId, Pageable pageable);
-    List<Application> findByIsAiProcessedFalse();
     long countByJobId(Long jobId);
     Page<Application> findByJobId(Long jobId, Pageable pageable);
+
+    // Re-evaluation campaigns walk a job's applications in ID order; a null score bound means unbounded
+    @Query("SELECT a.id FROM Application a WHERE a.job.id = :jobId AND a.id > :afterId " +
+            "AND a.status IN :statuses " +
+            "AND (:minScore IS NULL OR a.aiScore >= :minScore) " +
+            "AND (:maxScore IS NULL OR a.aiScore <= :maxScore) " +
+            "ORDER BY a.id")
+    List<Long> findCampaignBatch(@Param("jobId") Long jobId,
+                                 @Param("afterId") long afterId,
+                                 @Param("statuses") Collection<ApplicationStatus> statuses,
+                                 @Param("minScore") BigDecimal minScore,
+                                 @Param("maxScore") BigDecimal maxScore,
+                                 Pageable pageable);
+
+    // Offline batch runs: same ID-ordered walk, optionally across all jobs
+    @Query("SELECT a.id FROM Application a WHERE a.id > :afterId " +
+            "AND (:jobId IS NULL OR a.job.id = :jobId) " +
+            "AND (:status IS NULL OR a.status = :status) " +
+            "AND (:onlyUnprocessed = false OR a.isAiProcessed = false) " +
+            "ORDER BY a.id")
+    List<Long> findBatchRunChunk(@Param("afterId") long afterId,
+                                 @Param("jobId") Long jobId,
+                                 @Param("status") ApplicationStatus status,
+                                 @Param("onlyUnprocessed") boolean onlyUnprocessed,
+                                 Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM Application a WHERE a.job.id = :jobId " +
+            "AND a.status IN :statuses " +
+            "AND (:minScore IS NULL OR a.aiScore >= :minScore) " +
+            "AND (:maxScore IS NULL OR a.aiScore <= :maxScore)")
+    long countForCampaign(@Param("jobId") Long jobId,
+                          @Param("statuses") Collection<ApplicationStatus> statuses,
+                          @Param("minScore") BigDecimal minScore,
+                          @Param("maxScore") BigDecimal maxScore);
 }
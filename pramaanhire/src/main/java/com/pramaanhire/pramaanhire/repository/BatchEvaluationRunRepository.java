@@ -0,0 +1,27 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.BatchEvaluationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BatchEvaluationRunRepository extends JpaRepository<BatchEvaluationRun, Long> {
+
+    Optional<BatchEvaluationRun> findByRunName(String runName);
+
+    @Modifying
+    @Query("UPDATE BatchEvaluationRun r SET r.lastApplicationId = :lastApplicationId, " +
+            "r.succeededCount = r.succeededCount + :succeeded, r.failedCount = r.failedCount + :failed, " +
+            "r.updatedAt = :now WHERE r.id = :id")
+    void advance(@Param("id") Long id,
+                 @Param("lastApplicationId") long lastApplicationId,
+                 @Param("succeeded") long succeeded,
+                 @Param("failed") long failed,
+                 @Param("now") LocalDateTime now);
+}
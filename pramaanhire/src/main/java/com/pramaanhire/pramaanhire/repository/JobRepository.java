@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificationExecutor<Job> {
@@ -19,4 +20,7 @@ public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificatio
 
     @Query("SELECT j FROM Job j WHERE j.status = :status AND j.isActive = true AND (j.applicationDeadline IS NULL OR j.applicationDeadline > :now)")
     Page<Job> findOpenJobs(@Param("status") JobStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT j.updatedAt FROM Job j WHERE j.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
@@ -0,0 +1,38 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.JobScreeningStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JobScreeningStatsRepository extends JpaRepository<JobScreeningStats, Long> {
+
+    Optional<JobScreeningStats> findByJobId(Long jobId);
+
+    // Concurrent submissions for the same job would otherwise race to create the row
+    @Modifying
+    @Query(value = "INSERT INTO job_screening_stats (job_id, document_count, total_document_length, updated_at) " +
+            "VALUES (:jobId, 0, 0, :now) ON CONFLICT (job_id) DO NOTHING", nativeQuery = true)
+    void insertIfMissing(@Param("jobId") Long jobId, @Param("now") LocalDateTime now);
+
+    // Only the first writer after a description change matches; the others see the new hash
+    @Modifying
+    @Query("UPDATE JobScreeningStats s SET s.descriptionHash = :hash, s.documentCount = 0, " +
+            "s.totalDocumentLength = 0, s.updatedAt = :now " +
+            "WHERE s.job.id = :jobId AND (s.descriptionHash IS NULL OR s.descriptionHash <> :hash)")
+    int resetIfDescriptionChanged(@Param("jobId") Long jobId, @Param("hash") String hash,
+                                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE JobScreeningStats s SET s.documentCount = s.documentCount + 1, " +
+            "s.totalDocumentLength = s.totalDocumentLength + :length, s.updatedAt = :now " +
+            "WHERE s.job.id = :jobId AND s.descriptionHash = :hash")
+    int addDocument(@Param("jobId") Long jobId, @Param("hash") String hash, @Param("length") long length,
+                    @Param("now") LocalDateTime now);
+}
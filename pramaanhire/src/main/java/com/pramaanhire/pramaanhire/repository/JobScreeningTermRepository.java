@@ -0,0 +1,27 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.JobScreeningTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobScreeningTermRepository extends JpaRepository<JobScreeningTerm, Long> {
+
+    List<JobScreeningTerm> findByJobIdAndTermIn(Long jobId, Collection<String> terms);
+
+    @Modifying
+    @Query(value = "INSERT INTO job_screening_terms (job_id, term, document_count) VALUES (:jobId, :term, 1) " +
+            "ON CONFLICT (job_id, term) DO UPDATE SET document_count = job_screening_terms.document_count + 1",
+            nativeQuery = true)
+    void increment(@Param("jobId") Long jobId, @Param("term") String term);
+
+    @Modifying
+    @Query("DELETE FROM JobScreeningTerm t WHERE t.job.id = :jobId")
+    int deleteByJobId(@Param("jobId") Long jobId);
+}
@@ -0,0 +1,30 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.ReEvaluationCampaign;
+import com.pramaanhire.pramaanhire.enums.CampaignStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReEvaluationCampaignRepository extends JpaRepository<ReEvaluationCampaign, Long> {
+
+    List<ReEvaluationCampaign> findByJobIdOrderByCreatedAtDesc(Long jobId);
+
+    @Query("SELECT c.id FROM ReEvaluationCampaign c WHERE c.status = :status")
+    List<Long> findIdsByStatus(@Param("status") CampaignStatus status);
+
+    boolean existsByJobIdAndStatusIn(Long jobId, Collection<CampaignStatus> statuses);
+
+    // Several instances run the campaign tick; only one advances a given campaign at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ReEvaluationCampaign c WHERE c.id = :id")
+    Optional<ReEvaluationCampaign> findForUpdateById(@Param("id") Long id);
+}
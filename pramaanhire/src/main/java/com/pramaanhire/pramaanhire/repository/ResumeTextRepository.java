@@ -0,0 +1,15 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.ResumeText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ResumeTextRepository extends JpaRepository<ResumeText, Long> {
+    Optional<ResumeText> findByApplicationId(Long applicationId);
+
+    // Text already extracted from an identical PDF submitted with another application
+    Optional<ResumeText> findFirstByApplicationResumeSha256OrderByIdAsc(String resumeSha256);
+}
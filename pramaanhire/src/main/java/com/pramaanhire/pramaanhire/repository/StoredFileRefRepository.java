@@ -0,0 +1,44 @@
+package com.pramaanhire.pramaanhire.repository;
+
+import com.pramaanhire.pramaanhire.entity.StoredFileRef;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRefRepository extends JpaRepository<StoredFileRef, Long> {
+
+    Optional<StoredFileRef> findByFileName(String fileName);
+
+    // Concurrent uploads of the same file must not lose a reference, so this is a single upsert
+    @Modifying
+    @Query(value = "INSERT INTO stored_files (file_name, sha256, size_bytes, ref_count, created_at, updated_at) " +
+            "VALUES (:fileName, :sha256, :sizeBytes, 1, :now, :now) " +
+            "ON CONFLICT (file_name) DO UPDATE SET ref_count = stored_files.ref_count + 1, updated_at = :now",
+            nativeQuery = true)
+    void addReference(@Param("fileName") String fileName,
+                      @Param("sha256") String sha256,
+                      @Param("sizeBytes") long sizeBytes,
+                      @Param("now") LocalDateTime now);
+
+    // Locks the row, creating it with no references if needed, so a sweep and a store of the same bytes serialize
+    @Modifying(clearAutomatically = true)
+    @Query(value = "INSERT INTO stored_files (file_name, sha256, size_bytes, ref_count, created_at, updated_at) " +
+            "VALUES (:fileName, :sha256, :sizeBytes, 0, :now, :now) " +
+            "ON CONFLICT (file_name) DO UPDATE SET updated_at = stored_files.updated_at",
+            nativeQuery = true)
+    void lockReference(@Param("fileName") String fileName,
+                       @Param("sha256") String sha256,
+                       @Param("sizeBytes") long sizeBytes,
+                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT f.fileName FROM StoredFileRef f WHERE f.fileName IN :fileNames AND f.refCount > 0")
+    List<String> findReferencedFileNames(@Param("fileNames") Collection<String> fileNames);
+}
@@ -1,131 +1,383 @@
 package com.pramaanhire.pramaanhire.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pramaanhire.pramaanhire.config.AsyncConfig;
+import com.pramaanhire.pramaanhire.dto.AiEvaluationResult;
+import com.pramaanhire.pramaanhire.dto.EvaluationPrompt;
+import com.pramaanhire.pramaanhire.dto.JobPromptContext;
 import com.pramaanhire.pramaanhire.entity.AiEvaluation;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationModelResult;
 import com.pramaanhire.pramaanhire.entity.Application;
 import com.pramaanhire.pramaanhire.entity.ApplicationAnswer;
-import com.pramaanhire.pramaanhire.entity.Job;
+import com.pramaanhire.pramaanhire.exception.LlmUnavailableException;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationModelResultRepository;
 import com.pramaanhire.pramaanhire.repository.AiEvaluationRepository;
 import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AiEvaluationService {
 
-    private final ChatClient.Builder chatClientBuilder;
     private final AiEvaluationRepository aiEvaluationRepository;
+    private final AiEvaluationModelResultRepository modelResultRepository;
     private final ApplicationRepository applicationRepository;
-    private final ObjectMapper objectMapper;
+    private final JobPromptContextCache jobPromptContextCache;
+    private final EvaluationTaskService evaluationTaskService;
+    private final ResumeTextService resumeTextService;
+    private final EvaluationCacheService evaluationCacheService;
+    private final LlmGateway llmGateway;
+    private final EnsembleEvaluator ensembleEvaluator;
+    private final LlmCircuitBreaker llmCircuitBreaker;
+    private final HeuristicScorer heuristicScorer;
+    private final EvaluationPromptBuilder promptBuilder;
+    private final EvaluationResponseParser responseParser;
+    private final ModelRoutingPolicy routingPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @Async
-    @Transactional
-    public void evaluateApplication(Long applicationId, String resumeText) {
+    @Async(AsyncConfig.AI_EVALUATION_EXECUTOR)
+    public void evaluateApplication(Long applicationId) {
         log.info("Starting AI evaluation for application ID: {}", applicationId);
-        
-        Application application = applicationRepository.findById(applicationId)
-                .orElseThrow(() -> new RuntimeException("Application not found"));
 
-        Job job = application.getJob();
-        List<ApplicationAnswer> answers = application.getAnswers();
+        try {
+            // Read everything the prompt needs up front so no DB connection is held during the LLM call
+            PreparedEvaluation prepared = transactionTemplate.execute(status -> prepare(applicationId));
+            if (prepared == null) {
+                return;
+            }
 
-        String promptText = buildPrompt(job, answers, resumeText);
+            persist(score(prepared));
 
-        try {
-            ChatClient chatClient = chatClientBuilder.build();
-            
-            String response = chatClient.prompt()
-                .user(promptText)
-                .call()
-                .content();
-
-            log.info("AI Response received: {}", response);
-            
-            saveEvaluation(application, response);
-            
+        } catch (LlmUnavailableException e) {
+            degrade(applicationId);
         } catch (Exception e) {
-            log.error("Error during AI evaluation", e);
-            // We don't throw here to avoid rolling back the main transaction if this is async
-            // But we should probably mark the application as failed processing or retry
+            log.error("Error during AI evaluation for application ID: " + applicationId, e);
+            // We don't throw here since nobody is waiting on this async call.
+            // The task is either scheduled for a backoff retry or dead-lettered.
+            evaluationTaskService.recordFailure(applicationId, e);
         }
     }
 
-    private String buildPrompt(Job job, List<ApplicationAnswer> answers, String resumeText) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("You are an expert HR AI assistant. Evaluate the following candidate application for the job role: ")
-          .append(job.getTitle()).append("\n\n");
-        
-        sb.append("Job Description:\n").append(job.getDescription()).append("\n\n");
-        
-        sb.append("Candidate Resume Text:\n").append(resumeText).append("\n\n");
-        
-        sb.append("Screening Questions and Answers:\n");
-        for (ApplicationAnswer ans : answers) {
-            sb.append("Q: ").append(ans.getQuestion().getQuestionText()).append("\n");
-            sb.append("A: ").append(ans.getAnswerText()).append("\n");
+    /**
+     * Evaluates several applications for the same job with a single LLM call. Candidates whose element in
+     * the response is missing or invalid fall back to a single-candidate evaluation; the rest are saved.
+     */
+    @Async(AsyncConfig.AI_EVALUATION_EXECUTOR)
+    public void evaluateBatch(Long jobId, List<Long> applicationIds) {
+        log.info("Starting batched AI evaluation of {} applications for job ID: {}", applicationIds.size(), jobId);
+
+        if (jobPromptContextCache.get(jobId).isEnsembleEnabled()) {
+            // Every ensemble member needs the candidate on its own; evaluate one by one on this worker
+            applicationIds.forEach(this::evaluateApplication);
+            return;
+        }
+
+        List<PreparedEvaluation> toEvaluate = new ArrayList<>();
+        for (Long applicationId : applicationIds) {
+            try {
+                PreparedEvaluation prepared = transactionTemplate.execute(status -> prepare(applicationId));
+                if (prepared == null) {
+                    continue;
+                }
+                Optional<AiEvaluationResult> cached = evaluationCacheService.lookup(prepared.cacheKey(), prepared.prompt().getCompactedTokens());
+                if (cached.isPresent()) {
+                    persist(prepared, cached.get());
+                } else {
+                    toEvaluate.add(prepared);
+                }
+            } catch (Exception e) {
+                log.error("Error preparing batched AI evaluation for application ID: " + applicationId, e);
+                evaluationTaskService.recordFailure(applicationId, e);
+            }
+        }
+
+        if (toEvaluate.isEmpty()) {
+            return;
+        }
+        Map<Long, EvaluationPrompt> prompts = new LinkedHashMap<>();
+        toEvaluate.forEach(p -> prompts.put(p.applicationId(), p.prompt()));
+        EvaluationPromptBuilder.BatchPrompt batchPrompt = promptBuilder.buildBatchPrompt(jobPromptContextCache.get(jobId), prompts);
+        List<PreparedEvaluation> batch = toEvaluate.stream()
+                .filter(p -> batchPrompt.applicationIds().contains(p.applicationId()))
+                .toList();
+
+        // Candidates that would push the batch over the token budget are evaluated on their own
+        toEvaluate.stream()
+                .filter(p -> !batch.contains(p))
+                .forEach(p -> {
+                    meterRegistry.counter("ai.evaluation.batch.overflow").increment();
+                    evaluateApplication(p.applicationId());
+                });
+
+        if (batch.size() == 1) {
+            evaluateApplication(batch.get(0).applicationId());
+            return;
+        }
+
+        Map<Long, JsonNode> elements;
+        String batchModel;
+        try {
+            // Batches always start on the first tier; borderline candidates are escalated one by one below
+            LlmGateway.Completion completion = llmGateway.complete(batchPrompt.text(), batch.size(), routingPolicy.model(0),
+                    json -> responseParser.isValidBatch(json, batch.size()));
+            log.info("Batched AI Response received for job ID: {}", jobId);
+            elements = responseParser.parseBatch(completion.json());
+            batchModel = completion.model();
+            meterRegistry.counter("ai.evaluation.batch.candidates").increment(batch.size());
+
+        } catch (PermanentEvaluationException e) {
+            // The model could not produce a usable array; give every candidate its own request
+            log.warn("Batched AI response for job ID: {} was unusable, falling back to single evaluations", jobId, e);
+            batch.forEach(p -> fallBackToSingle(p.applicationId()));
+            return;
+        } catch (LlmUnavailableException e) {
+            batch.forEach(p -> degrade(p.applicationId()));
+            return;
+        } catch (Exception e) {
+            log.error("Error during batched AI evaluation for job ID: " + jobId, e);
+            batch.forEach(p -> evaluationTaskService.recordFailure(p.applicationId(), e));
+            return;
+        }
+
+        for (PreparedEvaluation prepared : batch) {
+            JsonNode element = elements.get(prepared.applicationId());
+            if (!responseParser.isValid(element)) {
+                fallBackToSingle(prepared.applicationId());
+                continue;
+            }
+            try {
+                AiEvaluationResult result = responseParser.toResult(element, batchModel);
+                if (routingPolicy.needsEscalation(0, result)) {
+                    countEscalation(0);
+                    result = route(prepared.prompt().getText(), 1);
+                }
+                evaluationCacheService.store(prepared.cacheKey(), result);
+                persist(prepared, result);
+            } catch (LlmUnavailableException e) {
+                degrade(prepared.applicationId());
+            } catch (Exception e) {
+                log.error("Error saving batched AI evaluation for application ID: " + prepared.applicationId(), e);
+                evaluationTaskService.recordFailure(prepared.applicationId(), e);
+            }
         }
-        
-        sb.append("\nEvaluate the candidate based on the resume and answers against the job description.\n");
-        sb.append("Provide the output in strict JSON format with the following fields:\n");
-        sb.append("- score (number 0-100)\n");
-        sb.append("- summary (string, brief overview)\n");
-        sb.append("- strengths (string, comma separated)\n");
-        sb.append("- weaknesses (string, comma separated)\n");
-        sb.append("- improvementTips (string, actionable advice)\n");
-        sb.append("- confidenceScore (number 0-100, how confident are you in this evaluation)\n");
-        sb.append("Do not include markdown formatting like ```json, just the raw JSON.");
-        
-        return sb.toString();
-    }
-
-    private void saveEvaluation(Application application, String jsonResponse) {
+    }
+
+    /**
+     * The LLM is unreachable: give HR a clearly marked heuristic score to rank by and park the task
+     * until the circuit breaker lets calls through again.
+     */
+    private void degrade(Long applicationId) {
+        log.warn("LLM unavailable, writing heuristic score for application ID: {}", applicationId);
         try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
-            
-            BigDecimal score = BigDecimal.valueOf(root.path("score").asDouble());
-            String summary = root.path("summary").asText();
-            String strengths = root.path("strengths").asText();
-            String weaknesses = root.path("weaknesses").asText();
-            String improvementTips = root.path("improvementTips").asText();
-            BigDecimal confidenceScore = BigDecimal.valueOf(root.path("confidenceScore").asDouble());
-
-            // Update Application
-            application.setAiScore(score);
-            application.setAiSummary(summary);
-            application.setAiProcessed(true);
-            applicationRepository.save(application);
-
-            // Save Detailed Evaluation
-            AiEvaluation evaluation = AiEvaluation.builder()
-                    .application(application)
-                    .strengths(strengths)
-                    .weaknesses(weaknesses)
-                    .improvementTips(improvementTips)
-                    .confidenceScore(confidenceScore)
-                    .modelUsed("gpt-4o-mini")
-                    .build();
-            
-            aiEvaluationRepository.save(evaluation);
-            
-            log.info("AI evaluation saved successfully for application ID: {}", application.getId());
-
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse AI response JSON", e);
+            transactionTemplate.executeWithoutResult(status -> {
+                Application application = applicationRepository.findById(applicationId)
+                        .orElseThrow(() -> new PermanentEvaluationException("Application not found"));
+                if (application.getHeuristicScore() != null) {
+                    return;
+                }
+                JobPromptContext job = jobPromptContextCache.get(application.getJob().getId());
+                application.setHeuristicScore(heuristicScorer.score(job, application.getAnswers(),
+                        resumeTextService.getText(applicationId)));
+                applicationRepository.save(application);
+                meterRegistry.counter("ai.evaluation.degraded").increment();
+            });
+        } catch (Exception e) {
+            log.error("Failed to write heuristic score for application ID: " + applicationId, e);
+        }
+        evaluationTaskService.deferUntil(applicationId, llmCircuitBreaker.retryAt(), "LLM unavailable; waiting for circuit breaker");
+    }
+
+    private void fallBackToSingle(Long applicationId) {
+        meterRegistry.counter("ai.evaluation.batch.fallbacks").increment();
+        log.info("Falling back to single-candidate evaluation for application ID: {}", applicationId);
+        // Self-invocation bypasses the @Async proxy, so this runs on the current worker
+        evaluateApplication(applicationId);
+    }
+
+    /**
+     * Renders the prompt for an application regardless of whether it was evaluated before. Unlike the
+     * queued path this never looks at the evaluation task; used by the offline batch runner.
+     */
+    public PreparedEvaluation prepareDetached(Long applicationId) {
+        return transactionTemplate.execute(status -> render(applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new PermanentEvaluationException("Application not found"))));
+    }
+
+    /**
+     * The LLM half of an evaluation, run on the calling thread: the result cache and the routing chain,
+     * or the model ensemble for jobs that use one. Nothing is written except the cache entry.
+     */
+    public ScoredEvaluation score(PreparedEvaluation prepared) {
+        Long applicationId = prepared.applicationId();
+        if (prepared.ensemble()) {
+            // Not cached: a cache hit could not reproduce the per-model results HR sees for these jobs
+            EnsembleEvaluator.EnsembleResult ensemble = ensembleEvaluator.evaluate(prepared.prompt().getText());
+            log.info("Ensemble evaluation for application ID: {} scored {} (disagreement {})",
+                    applicationId, ensemble.aggregate().getScore(), ensemble.disagreement());
+            return new ScoredEvaluation(prepared, ensemble.aggregate(), ensemble);
+        }
+
+        Optional<AiEvaluationResult> cached = evaluationCacheService.lookup(prepared.cacheKey(), prepared.prompt().getCompactedTokens());
+
+        AiEvaluationResult result;
+        if (cached.isPresent()) {
+            log.info("Reusing cached AI evaluation for application ID: {}", applicationId);
+            result = cached.get();
+        } else {
+            result = route(prepared.prompt().getText(), 0);
+            evaluationCacheService.store(prepared.cacheKey(), result);
+        }
+        return new ScoredEvaluation(prepared, result, null);
+    }
+
+    /**
+     * Saves several finished evaluations in one transaction and closes their tasks. Either all of them
+     * are written or none is.
+     */
+    public void persistAll(List<ScoredEvaluation> scored) {
+        transactionTemplate.executeWithoutResult(status -> scored.forEach(s -> {
+            saveEvaluation(s.prepared().applicationId(), s.result(), s.prepared().prompt(), s.ensemble());
+            evaluationTaskService.markCompleted(s.prepared().applicationId());
+        }));
+    }
+
+    private PreparedEvaluation prepare(Long applicationId) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new PermanentEvaluationException("Application not found"));
+
+        // A retry after a crash may find the evaluation already committed; campaigns re-score on purpose
+        if (application.isAiProcessed() && application.getAiEvaluation() != null
+                && !evaluationTaskService.isReEvaluation(applicationId)) {
+            log.info("Application ID: {} is already evaluated, skipping", applicationId);
+            evaluationTaskService.markCompleted(applicationId);
+            return null;
+        }
+        return render(application);
+    }
+
+    private PreparedEvaluation render(Application application) {
+        Long applicationId = application.getId();
+
+        // The job itself is never loaded here; its prompt half comes from the per-job cache
+        JobPromptContext job = jobPromptContextCache.get(application.getJob().getId());
+        List<ApplicationAnswer> answers = application.getAnswers();
+
+        String resumeText = resumeTextService.getText(applicationId);
+        if (resumeText == null || resumeText.isBlank()) {
+            // Scanned or encrypted PDFs yield no text; asking the model again will not change that
+            throw new PermanentEvaluationException("No text could be extracted from the resume");
+        }
+
+        EvaluationPrompt prompt = promptBuilder.buildPrompt(job, answers, resumeText);
+        meterRegistry.summary("ai.evaluation.prompt.tokens", "stage", "raw").record(prompt.getRawTokens());
+        meterRegistry.summary("ai.evaluation.prompt.tokens", "stage", "compacted").record(prompt.getCompactedTokens());
+
+        String cacheKey = evaluationCacheService.buildKey(job, answers, resumeText, routingPolicy.cacheKey());
+        return new PreparedEvaluation(applicationId, prompt, cacheKey, job.isEnsembleEnabled());
+    }
+
+    /**
+     * Walks the model chain starting at {@code tier}, stopping at the first result that is neither
+     * borderline nor low-confidence. The returned result names the model that produced it.
+     */
+    private AiEvaluationResult route(String promptText, int tier) {
+        while (true) {
+            String tierModel = routingPolicy.model(tier);
+            LlmGateway.Completion completion = llmGateway.complete(promptText, 1, tierModel, responseParser::isValid);
+            log.info("AI Response received from {}: {}", completion.model(), completion.json());
+
+            AiEvaluationResult result = responseParser.toResult(completion.json(), completion.model());
+            if (!routingPolicy.needsEscalation(tier, result)) {
+                meterRegistry.counter("ai.evaluation.routing.final", "model", completion.model()).increment();
+                return result;
+            }
+            countEscalation(tier);
+            tier++;
+        }
+    }
+
+    private void countEscalation(int fromTier) {
+        meterRegistry.counter("ai.evaluation.routing.escalations", "from", routingPolicy.model(fromTier)).increment();
+    }
+
+    private void persist(PreparedEvaluation prepared, AiEvaluationResult result) {
+        persist(new ScoredEvaluation(prepared, result, null));
+    }
+
+    private void persist(ScoredEvaluation scored) {
+        persistAll(List.of(scored));
+    }
+
+    private void saveEvaluation(Long applicationId, AiEvaluationResult result, EvaluationPrompt prompt,
+                                EnsembleEvaluator.EnsembleResult ensemble) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new PermanentEvaluationException("Application not found"));
+
+        // Update Application
+        application.setAiScore(result.getScore());
+        application.setAiSummary(result.getSummary());
+        application.setAiProcessed(true);
+        applicationRepository.save(application);
+
+        // Save Detailed Evaluation (one row per application, overwritten if it already exists).
+        // A re-evaluation replaces the previous one in this same transaction, so rankings never go blank.
+        AiEvaluation evaluation = application.getAiEvaluation() != null
+                ? application.getAiEvaluation()
+                : AiEvaluation.builder().application(application).build();
+        evaluation.setStrengths(result.getStrengths());
+        evaluation.setWeaknesses(result.getWeaknesses());
+        evaluation.setImprovementTips(result.getImprovementTips());
+        evaluation.setConfidenceScore(result.getConfidenceScore());
+        evaluation.setModelUsed(result.getModelUsed());
+        evaluation.setPromptTokensRaw(prompt.getRawTokens());
+        evaluation.setPromptTokensCompacted(prompt.getCompactedTokens());
+
+        // Member rows from an earlier ensemble run are replaced, or dropped if the job no longer uses one
+        if (evaluation.getEnsembleSize() != null) {
+            modelResultRepository.deleteByEvaluationId(evaluation.getId());
         }
+        evaluation.setEnsembleSize(ensemble != null ? ensemble.counted() : null);
+        evaluation.setScoreDisagreement(ensemble != null ? ensemble.disagreement() : null);
+
+        aiEvaluationRepository.save(evaluation);
+
+        if (ensemble != null) {
+            modelResultRepository.saveAll(ensemble.members().stream()
+                    .map(member -> AiEvaluationModelResult.builder()
+                            .evaluation(evaluation)
+                            .model(member.model())
+                            .outcome(member.outcome())
+                            .score(member.result() != null ? member.result().getScore() : null)
+                            .confidenceScore(member.result() != null ? member.result().getConfidenceScore() : null)
+                            .summary(member.result() != null ? member.result().getSummary() : null)
+                            .strengths(member.result() != null ? member.result().getStrengths() : null)
+                            .weaknesses(member.result() != null ? member.result().getWeaknesses() : null)
+                            .latencyMs(member.latencyMs() >= 0 ? member.latencyMs() : null)
+                            .build())
+                    .toList());
+        }
+
+        log.info("AI evaluation saved successfully for application ID: {}", applicationId);
+    }
+
+    public record PreparedEvaluation(Long applicationId, EvaluationPrompt prompt, String cacheKey, boolean ensemble) {
+    }
+
+    public record ScoredEvaluation(PreparedEvaluation prepared, AiEvaluationResult result,
+                                   EnsembleEvaluator.EnsembleResult ensemble) {
     }
 }
@@ -1,55 +1,126 @@
 package com.pramaanhire.pramaanhire.service;
 
-import com.pramaanhire.pramaanhire.entity.Application;
-import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.config.AsyncConfig;
+import com.pramaanhire.pramaanhire.dto.ClaimedEvaluationTask;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AiRetryScheduler {
 
-    private final ApplicationRepository applicationRepository;
     private final AiEvaluationService aiEvaluationService;
-    private final PdfExtractionService pdfExtractionService;
-    private final FileStorageService fileStorageService;
+    private final EvaluationTaskService evaluationTaskService;
+    private final LlmCircuitBreaker llmCircuitBreaker;
 
-    // Run every 5 minutes (300,000 ms)
-    @Scheduled(fixedDelay = 300000)
+    @Qualifier(AsyncConfig.AI_EVALUATION_EXECUTOR)
+    private final ThreadPoolTaskExecutor aiEvaluationExecutor;
+
+    @Value("${ai.evaluation.queue.batch-size:20}")
+    private int batchSize;
+
+    // Claimed tasks wait in the pool's FIFO queue where they can no longer be reordered, so keep it short
+    @Value("${ai.evaluation.scheduling.max-buffered:8}")
+    private int maxBuffered;
+
+    @Value("${ai.evaluation.batch.enabled:false}")
+    private boolean batchPromptsEnabled;
+
+    // Number of candidates for the same job sent in one prompt when batched prompts are enabled
+    @Value("${ai.evaluation.batch.candidates-per-prompt:5}")
+    private int candidatesPerPrompt;
+
+    // Poll often but claim little: each run only takes what the evaluation pool can absorb right now
+    @Scheduled(fixedDelayString = "${ai.evaluation.queue.poll-interval-ms:30000}")
     public void retryFailedEvaluations() {
-        log.info("Checking for pending AI evaluations...");
+        // While the circuit is open every claim would just be parked again
+        if (!llmCircuitBreaker.isCallPermitted()) {
+            log.debug("LLM circuit breaker is open, skipping this poll.");
+            return;
+        }
 
-        List<Application> pendingApplications = applicationRepository.findByIsAiProcessedFalse();
+        ThreadPoolExecutor pool = aiEvaluationExecutor.getThreadPoolExecutor();
+        int freeSlots = pool.getQueue().remainingCapacity();
+        int headroom = Math.min(freeSlots, maxBuffered - pool.getQueue().size());
+        // A batched prompt occupies one worker for several candidates
+        int perSlot = batchPromptsEnabled ? candidatesPerPrompt : 1;
+        int limit = Math.max(0, Math.min(batchSize, headroom * perSlot));
+        // Express tasks may use the whole queue; they jump ahead of anything claimed later
+        int expressLimit = Math.min(batchSize, freeSlots * perSlot);
+        if (expressLimit <= 0) {
+            log.debug("Evaluation pool is saturated, skipping this poll.");
+            return;
+        }
 
-        if (pendingApplications.isEmpty()) {
-            log.info("No pending evaluations found.");
+        List<ClaimedEvaluationTask> claimed = evaluationTaskService.claimBatch(limit, expressLimit);
+
+        if (claimed.isEmpty()) {
+            log.debug("No pending evaluations found.");
             return;
         }
 
-        log.info("Found {} applications pending AI evaluation.", pendingApplications.size());
-
-        for (Application app : pendingApplications) {
-            try {
-                log.info("Retrying AI evaluation for Application ID: {}", app.getId());
-                
-                // Load the stored resume file
-                Resource resumeResource = fileStorageService.loadFileAsResource(app.getResumeUrl());
-                
-                // Extract text again
-                String resumeText = pdfExtractionService.extractTextFromResource(resumeResource);
-                
-                // Trigger evaluation (this is async, but that's fine)
-                aiEvaluationService.evaluateApplication(app.getId(), resumeText);
-                
-            } catch (Exception e) {
-                log.error("Failed to retry evaluation for Application ID: " + app.getId(), e);
-            }
+        log.info("Claimed {} applications pending AI evaluation.", claimed.size());
+
+        if (batchPromptsEnabled) {
+            Map<Long, List<Long>> byJob = claimed.stream()
+                    .collect(Collectors.groupingBy(ClaimedEvaluationTask::getJobId, LinkedHashMap::new,
+                            Collectors.mapping(ClaimedEvaluationTask::getApplicationId, Collectors.toList())));
+
+            byJob.forEach((jobId, applicationIds) -> {
+                for (int from = 0; from < applicationIds.size(); from += candidatesPerPrompt) {
+                    List<Long> chunk = applicationIds.subList(from, Math.min(from + candidatesPerPrompt, applicationIds.size()));
+                    if (chunk.size() == 1) {
+                        dispatch(chunk.get(0));
+                    } else {
+                        dispatchBatch(jobId, List.copyOf(chunk));
+                    }
+                }
+            });
+        } else {
+            claimed.forEach(task -> dispatch(task.getApplicationId()));
+        }
+    }
+
+    /**
+     * True when an evaluation submitted now would start right away instead of queueing behind other work.
+     * Otherwise new applications are left to the fair scheduler.
+     */
+    public boolean hasIdleWorker() {
+        ThreadPoolExecutor pool = aiEvaluationExecutor.getThreadPoolExecutor();
+        return pool.getQueue().isEmpty() && pool.getActiveCount() < pool.getCorePoolSize();
+    }
+
+    private void dispatch(Long applicationId) {
+        try {
+            log.info("Retrying AI evaluation for Application ID: {}", applicationId);
+
+            // Trigger evaluation (this is async, but that's fine); the worker reads the stored resume text
+            aiEvaluationService.evaluateApplication(applicationId);
+
+        } catch (Exception e) {
+            log.error("Failed to retry evaluation for Application ID: " + applicationId, e);
+            evaluationTaskService.recordFailure(applicationId, e);
+        }
+    }
+
+    private void dispatchBatch(Long jobId, List<Long> applicationIds) {
+        try {
+            aiEvaluationService.evaluateBatch(jobId, applicationIds);
+        } catch (Exception e) {
+            log.error("Failed to dispatch batched evaluation for Job ID: " + jobId, e);
+            applicationIds.forEach(id -> evaluationTaskService.recordFailure(id, e));
         }
     }
 }
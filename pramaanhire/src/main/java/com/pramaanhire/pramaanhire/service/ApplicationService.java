@@ -7,6 +7,7 @@ import com.pramaanhire.pramaanhire.dto.ApplicationAnswerDto;
 import com.pramaanhire.pramaanhire.dto.ApplicationDetailDto;
 import com.pramaanhire.pramaanhire.dto.ApplicationSummaryDto;
 import com.pramaanhire.pramaanhire.dto.CandidateDashboardDto;
+import com.pramaanhire.pramaanhire.dto.StoredFile;
 import com.pramaanhire.pramaanhire.entity.*;
 import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
 import com.pramaanhire.pramaanhire.enums.JobStatus;
@@ -43,7 +44,12 @@ public class ApplicationService {
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
     private final PdfExtractionService pdfExtractionService;
+    private final ResumeTextCache resumeTextCache;
     private final AiEvaluationService aiEvaluationService;
+    private final EvaluationTaskService evaluationTaskService;
+    private final AiRetryScheduler aiRetryScheduler;
+    private final ResumeTextService resumeTextService;
+    private final PreScreeningService preScreeningService;
     private final EmailService emailService;
     private final ObjectMapper objectMapper;
 
@@ -80,12 +86,6 @@ public class ApplicationService {
             throw new RuntimeException("Only PDF resumes are allowed");
         }
 
-        // Store Resume
-        String storedFileName = fileStorageService.storeFile(resume);
-
-        // Extract text from PDF
-        String resumeText = pdfExtractionService.extractTextFromPdf(resume);
-
         // Parse Answers
         List<ApplicationAnswerDto> answerDtos;
         try {
@@ -94,16 +94,33 @@ public class ApplicationService {
             throw new RuntimeException("Invalid answers format");
         }
 
-        // Validate Answers against Job Questions
+        // Validate Answers against Job Questions (before touching the disk, so rejected submits cost no I/O)
         validateAnswers(job, answerDtos);
 
+        // Store Resume: the upload stream is read once, hashed on the way to disk
+        StoredFile storedResume = fileStorageService.store(resume);
+
+        // Extract text from the stored copy rather than buffering the upload a second time; an identical
+        // PDF seen before already has its text stored. Stored text may predate the current page limit, so
+        // it is used as is but never put in the cache, whose entries are keyed by that limit
+        String resumeText = (storedResume.isDuplicate()
+                ? resumeTextService.findByResumeHash(storedResume.getSha256())
+                : Optional.<String>empty())
+                .orElseGet(() -> resumeTextCache.get(storedResume.getSha256(), storedResume.getSize(),
+                        () -> pdfExtractionService.extractTextFromFile(storedResume.getPath())));
+
         // Create Application
+        // Cheap lexical relevance check decides whether the LLM sees this application now or later
+        PreScreeningService.PreScreenResult preScreen = preScreeningService.screen(job, resumeText);
+
         Application application = Application.builder()
                 .job(job)
                 .candidate(candidate)
-                .resumeUrl(storedFileName)
+                .resumeUrl(storedResume.getFileName())
+                .resumeSha256(storedResume.getSha256())
                 .status(ApplicationStatus.SUBMITTED)
                 .isAiProcessed(false) // Initially false
+                .prescreenScore(preScreen.score())
                 .answers(new ArrayList<>())
                 .build();
 
@@ -130,11 +147,27 @@ public class ApplicationService {
 
         Application savedApp = applicationRepository.save(application);
 
+        // Keep the extracted text so retries and re-evaluations never parse the PDF again
+        resumeTextService.save(savedApp, resumeText);
+
+        // Queue the evaluation durably; if the async call below is lost, the lease lapses and the scheduler retries it.
+        // When the pool is busy the application waits for the scheduler, which shares workers fairly across jobs,
+        // and applications below the pre-screen threshold go in at low priority.
+        boolean dispatchNow = preScreen.promising() && aiRetryScheduler.hasIdleWorker();
+        if (dispatchNow) {
+            evaluationTaskService.enqueueLeased(savedApp);
+        } else {
+            evaluationTaskService.enqueuePending(savedApp,
+                    preScreen.promising() ? AiEvaluationTask.PRIORITY_NORMAL : AiEvaluationTask.PRIORITY_LOW);
+        }
+
         // Trigger Async AI Evaluation AFTER transaction commit
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override
             public void afterCommit() {
-                aiEvaluationService.evaluateApplication(savedApp.getId(), resumeText);
+                if (dispatchNow) {
+                    aiEvaluationService.evaluateApplication(savedApp.getId());
+                }
                 // Send Submission Confirmation Email
                 emailService.sendSubmissionEmail(candidate.getEmail(), candidate.getFullName(), job.getTitle());
             }
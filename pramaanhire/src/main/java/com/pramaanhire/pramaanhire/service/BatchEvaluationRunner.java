@@ -0,0 +1,96 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.entity.BatchEvaluationRun;
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.BatchRunStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Headless entry point for offline evaluation, enabled by the {@code batch} profile:
+ * <pre>
+ * java -jar pramaanhire.jar --spring.profiles.active=batch --batch.job-id=42 --batch.status=SUBMITTED
+ * </pre>
+ * Rerunning with the same filter (or {@code --batch.run-name}) resumes from the last checkpoint. The
+ * process exits when the run ends: 0 if every application was evaluated, 2 if some failed, 1 on error.
+ */
+@Component
+@ConditionalOnProperty(name = "batch.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchEvaluationRunner implements ApplicationRunner {
+
+    private final BatchEvaluationService batchEvaluationService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${batch.job-id:#{null}}")
+    private Long jobId;
+
+    @Value("${batch.status:}")
+    private String status;
+
+    // Off re-scores applications that already have an evaluation
+    @Value("${batch.only-unprocessed:true}")
+    private boolean onlyUnprocessed;
+
+    @Value("${batch.run-name:}")
+    private String runName;
+
+    @Value("${batch.restart:false}")
+    private boolean restart;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode;
+        try {
+            exitCode = runBatch();
+        } catch (RuntimeException e) {
+            log.error("Batch evaluation failed", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private int runBatch() {
+        BatchEvaluationService.Filter filter = new BatchEvaluationService.Filter(jobId,
+                status.isBlank() ? null : ApplicationStatus.valueOf(status.trim().toUpperCase()), onlyUnprocessed);
+        String name = runName.isBlank() ? filter.defaultRunName() : runName.trim();
+
+        BatchEvaluationRun run = batchEvaluationService.startOrResume(name, filter, restart);
+        if (run.getStatus() == BatchRunStatus.COMPLETED) {
+            log.info("Batch run '{}' already completed at {} ({} evaluated, {} failed); pass --batch.restart=true to run it again",
+                    name, run.getFinishedAt(), run.getSucceededCount(), run.getFailedCount());
+            return 0;
+        }
+
+        BatchEvaluationService.Summary summary = batchEvaluationService.run(run);
+        printSummary(summary);
+        if (!summary.completed()) {
+            return 1;
+        }
+        return summary.failed() > 0 ? 2 : 0;
+    }
+
+    private void printSummary(BatchEvaluationService.Summary summary) {
+        log.info("Batch run '{}' {} in {} s", summary.runName(),
+                summary.completed() ? "finished" : "stopped early", summary.elapsed().toSeconds());
+        log.info("  applications: {} evaluated, {} failed", summary.succeeded(), summary.failed());
+        log.info("  throughput:   {} applications/min", String.format("%.1f", summary.perMinute()));
+        // Stage times are summed across each stage's threads; they overlap, so they exceed the elapsed time
+        log.info("  stage time:   prepare {} s, llm {} s, write {} s", summary.prepareMillis() / 1000,
+                summary.llmMillis() / 1000, summary.writeMillis() / 1000);
+        if (summary.errors().isEmpty()) {
+            log.info("  errors:       none");
+        } else {
+            summary.errors().forEach((type, count) -> log.info("  errors:       {} x {}", count, type));
+        }
+    }
+}
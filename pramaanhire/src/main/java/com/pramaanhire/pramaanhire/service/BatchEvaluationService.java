@@ -0,0 +1,357 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.entity.BatchEvaluationRun;
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.BatchRunStatus;
+import com.pramaanhire.pramaanhire.exception.LlmUnavailableException;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.repository.BatchEvaluationRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Offline evaluation of many applications at once, for backfills and re-scoring after a data fix.
+ * <p>
+ * Work flows through three overlapping stages: text extraction and prompt building, LLM calls, and
+ * batched writes. Each stage has its own threads, and a bound on in-flight applications keeps the
+ * reader from running ahead of the LLM. The run's checkpoint is committed together with each write batch.
+ */
+@Service
+@Slf4j
+public class BatchEvaluationService {
+
+    public record Filter(Long jobId, ApplicationStatus status, boolean onlyUnprocessed) {
+
+        public String defaultRunName() {
+            return "job-" + (jobId != null ? jobId : "all")
+                    + "-" + (status != null ? status.name().toLowerCase() : "any")
+                    + (onlyUnprocessed ? "-unprocessed" : "-all");
+        }
+    }
+
+    public record Summary(String runName, boolean completed, long succeeded, long failed, Duration elapsed,
+                          long prepareMillis, long llmMillis, long writeMillis, Map<String, Long> errors) {
+
+        public double perMinute() {
+            long millis = Math.max(1, elapsed.toMillis());
+            return (succeeded + failed) * 60_000.0 / millis;
+        }
+    }
+
+    private record Outcome(Long applicationId, AiEvaluationService.ScoredEvaluation scored, Throwable error) {
+    }
+
+    private final ApplicationRepository applicationRepository;
+    private final BatchEvaluationRunRepository runRepository;
+    private final AiEvaluationService aiEvaluationService;
+    private final LlmCircuitBreaker llmCircuitBreaker;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int prepareThreads;
+    private final int llmThreads;
+    private final int writeBatchSize;
+    private final long flushIntervalMs;
+    private final int maxInFlight;
+    private final int maxAttempts;
+
+    public BatchEvaluationService(ApplicationRepository applicationRepository,
+                                  BatchEvaluationRunRepository runRepository,
+                                  AiEvaluationService aiEvaluationService,
+                                  LlmCircuitBreaker llmCircuitBreaker,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${batch.chunk-size:500}") int chunkSize,
+                                  @Value("${batch.prepare-threads:4}") int prepareThreads,
+                                  @Value("${batch.llm-threads:${ai.llm.concurrency.max:8}}") int llmThreads,
+                                  @Value("${batch.write-batch-size:50}") int writeBatchSize,
+                                  @Value("${batch.flush-interval-ms:2000}") long flushIntervalMs,
+                                  @Value("${batch.max-in-flight:200}") int maxInFlight,
+                                  @Value("${batch.max-attempts:3}") int maxAttempts) {
+        this.applicationRepository = applicationRepository;
+        this.runRepository = runRepository;
+        this.aiEvaluationService = aiEvaluationService;
+        this.llmCircuitBreaker = llmCircuitBreaker;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.prepareThreads = prepareThreads;
+        this.llmThreads = llmThreads;
+        this.writeBatchSize = writeBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Returns the checkpoint for {@code runName}, creating it on first use. An existing run only resumes
+     * with the filter it was started with; {@code restart} rewinds it to the beginning instead.
+     */
+    @Transactional
+    public BatchEvaluationRun startOrResume(String runName, Filter filter, boolean restart) {
+        BatchEvaluationRun run = runRepository.findByRunName(runName).orElse(null);
+        if (run == null) {
+            return runRepository.save(BatchEvaluationRun.builder()
+                    .runName(runName)
+                    .jobId(filter.jobId())
+                    .statusFilter(filter.status())
+                    .onlyUnprocessed(filter.onlyUnprocessed())
+                    .status(BatchRunStatus.RUNNING)
+                    .build());
+        }
+
+        if (restart) {
+            run.setJobId(filter.jobId());
+            run.setStatusFilter(filter.status());
+            run.setOnlyUnprocessed(filter.onlyUnprocessed());
+            run.setStatus(BatchRunStatus.RUNNING);
+            run.setLastApplicationId(0);
+            run.setSucceededCount(0);
+            run.setFailedCount(0);
+            run.setFinishedAt(null);
+            return runRepository.save(run);
+        }
+
+        boolean sameFilter = Objects.equals(run.getJobId(), filter.jobId())
+                && run.getStatusFilter() == filter.status()
+                && run.isOnlyUnprocessed() == filter.onlyUnprocessed();
+        if (!sameFilter) {
+            throw new IllegalStateException("Batch run '" + runName + "' was started with a different filter; "
+                    + "use another run name or restart it");
+        }
+        return run;
+    }
+
+    public Summary run(BatchEvaluationRun run) {
+        Filter filter = new Filter(run.getJobId(), run.getStatusFilter(), run.isOnlyUnprocessed());
+        log.info("Batch run '{}' starting after application ID {} ({} evaluated, {} failed so far)",
+                run.getRunName(), run.getLastApplicationId(), run.getSucceededCount(), run.getFailedCount());
+
+        long started = System.nanoTime();
+        AtomicLong prepareNanos = new AtomicLong();
+        AtomicLong llmNanos = new AtomicLong();
+        AtomicLong writeNanos = new AtomicLong();
+        Map<String, Long> errors = new TreeMap<>();
+        long succeeded = 0;
+        long failed = 0;
+
+        BlockingQueue<Outcome> finished = new LinkedBlockingQueue<>();
+        // IDs handed to the pipeline and not yet written; the checkpoint stays below the smallest of them
+        NavigableSet<Long> outstanding = new ConcurrentSkipListSet<>();
+        AtomicLong lastRead = new AtomicLong(run.getLastApplicationId());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        ExecutorService readerExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("batch-read-"));
+        ExecutorService prepareExecutor = Executors.newFixedThreadPool(prepareThreads, new CustomizableThreadFactory("batch-prepare-"));
+        ExecutorService llmExecutor = Executors.newFixedThreadPool(llmThreads, new CustomizableThreadFactory("batch-llm-"));
+        try {
+            CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+                long cursor = run.getLastApplicationId();
+                while (true) {
+                    List<Long> ids = applicationRepository.findBatchRunChunk(cursor, filter.jobId(), filter.status(),
+                            filter.onlyUnprocessed(), PageRequest.of(0, chunkSize));
+                    if (ids.isEmpty()) {
+                        return;
+                    }
+                    for (Long id : ids) {
+                        inFlight.acquireUninterruptibly();
+                        // Added before lastRead moves, so a flush that reads lastRead first always sees it
+                        outstanding.add(id);
+                        lastRead.set(id);
+                        CompletableFuture
+                                .supplyAsync(() -> timed(prepareNanos, () -> aiEvaluationService.prepareDetached(id)), prepareExecutor)
+                                .thenApplyAsync(prepared -> timed(llmNanos, () -> scoreWithRetry(prepared)), llmExecutor)
+                                .whenComplete((scored, error) -> finished.add(new Outcome(id, scored, unwrap(error))));
+                    }
+                    cursor = ids.get(ids.size() - 1);
+                }
+            }, readerExecutor);
+
+            List<Outcome> pending = new ArrayList<>();
+            long lastFlush = System.nanoTime();
+            while (!(reader.isDone() && outstanding.isEmpty())) {
+                Outcome outcome = finished.poll(200, TimeUnit.MILLISECONDS);
+                if (outcome != null) {
+                    pending.add(outcome);
+                    finished.drainTo(pending, Math.max(0, writeBatchSize - pending.size()));
+                }
+                boolean due = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastFlush) >= flushIntervalMs;
+                if (pending.size() >= writeBatchSize || (due && !pending.isEmpty())) {
+                    long writeStarted = System.nanoTime();
+                    long[] counts = flush(run.getId(), pending, outstanding, lastRead, errors);
+                    writeNanos.addAndGet(System.nanoTime() - writeStarted);
+                    succeeded += counts[0];
+                    failed += counts[1];
+                    inFlight.release(pending.size());
+                    pending.clear();
+                    lastFlush = System.nanoTime();
+                }
+            }
+
+            boolean completed = !reader.isCompletedExceptionally();
+            if (completed) {
+                transactionTemplate.executeWithoutResult(status -> runRepository.findById(run.getId()).ifPresent(r -> {
+                    r.setStatus(BatchRunStatus.COMPLETED);
+                    r.setFinishedAt(LocalDateTime.now());
+                }));
+            } else {
+                Throwable error = unwrap(reader.handle((v, e) -> e).join());
+                log.error("Batch run '" + run.getRunName() + "' stopped reading applications; rerun to resume", error);
+            }
+
+            return new Summary(run.getRunName(), completed, succeeded, failed,
+                    Duration.ofNanos(System.nanoTime() - started),
+                    TimeUnit.NANOSECONDS.toMillis(prepareNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(llmNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(writeNanos.get()),
+                    errors);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch run '" + run.getRunName() + "' was interrupted; rerun to resume", e);
+        } finally {
+            readerExecutor.shutdownNow();
+            prepareExecutor.shutdownNow();
+            llmExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the successful outcomes and moves the checkpoint in one transaction. If the batch as a whole
+     * cannot be written, each evaluation is retried on its own so one bad row does not sink the rest.
+     * Returns {succeeded, failed}.
+     */
+    private long[] flush(Long runId, List<Outcome> pending, NavigableSet<Long> outstanding, AtomicLong lastRead,
+                         Map<String, Long> errors) {
+        List<AiEvaluationService.ScoredEvaluation> scored = new ArrayList<>();
+        List<Outcome> failures = new ArrayList<>();
+        for (Outcome outcome : pending) {
+            if (outcome.error() == null) {
+                scored.add(outcome.scored());
+            } else {
+                failures.add(outcome);
+            }
+        }
+
+        Set<Long> ids = new HashSet<>();
+        pending.forEach(o -> ids.add(o.applicationId()));
+        long checkpoint = checkpoint(ids, outstanding, lastRead);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                aiEvaluationService.persistAll(scored);
+                runRepository.advance(runId, checkpoint, scored.size(), failures.size(), LocalDateTime.now());
+            });
+        } catch (RuntimeException batchError) {
+            log.warn("Writing a batch of {} evaluations failed, saving them one by one", scored.size(), batchError);
+            List<AiEvaluationService.ScoredEvaluation> written = new ArrayList<>();
+            for (AiEvaluationService.ScoredEvaluation s : scored) {
+                try {
+                    aiEvaluationService.persistAll(List.of(s));
+                    written.add(s);
+                } catch (RuntimeException e) {
+                    failures.add(new Outcome(s.prepared().applicationId(), null, e));
+                }
+            }
+            scored.retainAll(written);
+            transactionTemplate.executeWithoutResult(status ->
+                    runRepository.advance(runId, checkpoint, scored.size(), failures.size(), LocalDateTime.now()));
+        }
+
+        for (Outcome failure : failures) {
+            errors.merge(failure.error().getClass().getSimpleName(), 1L, Long::sum);
+            log.warn("Batch evaluation failed for application ID: {}: {}", failure.applicationId(), failure.error().getMessage());
+        }
+        outstanding.removeAll(ids);
+        return new long[]{scored.size(), failures.size()};
+    }
+
+    // Highest ID such that it and everything below it is done once this batch is written
+    private long checkpoint(Set<Long> flushing, NavigableSet<Long> outstanding, AtomicLong lastRead) {
+        long readMark = lastRead.get();
+        for (Long id : outstanding) {
+            if (id > readMark) {
+                break;
+            }
+            if (!flushing.contains(id)) {
+                return id - 1;
+            }
+        }
+        return readMark;
+    }
+
+    /**
+     * Rate limits are absorbed by the gateway; an open circuit breaker pauses the run instead of failing
+     * every application; other non-permanent errors get a few attempts with backoff.
+     */
+    private AiEvaluationService.ScoredEvaluation scoreWithRetry(AiEvaluationService.PreparedEvaluation prepared) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return aiEvaluationService.score(prepared);
+            } catch (LlmUnavailableException e) {
+                long waitMs = Math.max(1000, Duration.between(LocalDateTime.now(), llmCircuitBreaker.retryAt()).toMillis());
+                log.warn("LLM unavailable, batch pausing {} ms before application ID: {}", waitMs, prepared.applicationId());
+                sleep(waitMs);
+            } catch (PermanentEvaluationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                sleep(1000L << attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private static <T> T timed(AtomicLong total, Supplier<T> stage) {
+        long started = System.nanoTime();
+        try {
+            return stage.get();
+        } finally {
+            total.addAndGet(System.nanoTime() - started);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
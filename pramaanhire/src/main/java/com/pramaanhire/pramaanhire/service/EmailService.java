@@ -1,5 +1,6 @@
 package com.pramaanhire.pramaanhire.service;
 
+import com.pramaanhire.pramaanhire.config.AsyncConfig;
 import com.pramaanhire.pramaanhire.dto.RejectionEmailDto;
 import com.pramaanhire.pramaanhire.entity.Application;
 import jakarta.mail.MessagingException;
@@ -18,28 +19,28 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendSubmissionEmail(String toEmail, String candidateName, String jobTitle) {
         String subject = "Application Received: " + jobTitle;
         String content = buildSubmissionEmailContent(candidateName, jobTitle);
         sendEmail(toEmail, subject, content);
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendShortlistedEmail(String toEmail, String candidateName, String jobTitle) {
         String subject = "Good News! You've been Shortlisted for " + jobTitle;
         String content = buildShortlistedEmailContent(candidateName, jobTitle);
         sendEmail(toEmail, subject, content);
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendHiredEmail(String toEmail, String candidateName, String jobTitle) {
         String subject = "Congratulations! Offer for " + jobTitle;
         String content = buildHiredEmailContent(candidateName, jobTitle);
         sendEmail(toEmail, subject, content);
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendRejectionEmail(RejectionEmailDto emailDto) {
         String subject = "Update on your application for " + emailDto.getJobTitle();
         String content = buildRejectionEmailContent(emailDto);
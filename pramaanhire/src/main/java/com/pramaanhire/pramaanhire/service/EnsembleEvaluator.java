@@ -0,0 +1,205 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.config.AsyncConfig;
+import com.pramaanhire.pramaanhire.dto.AiEvaluationResult;
+import com.pramaanhire.pramaanhire.enums.EnsembleMemberOutcome;
+import com.pramaanhire.pramaanhire.exception.LlmUnavailableException;
+import com.pramaanhire.pramaanhire.exception.TransientEvaluationException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scores one prompt with several models at once and averages the results. All members are started
+ * together and given a shared deadline; whoever has not answered by then is cancelled and left out, so an
+ * ensemble takes about as long as its slowest counted model rather than the sum of all of them.
+ */
+@Component
+@Slf4j
+public class EnsembleEvaluator {
+
+    public record MemberResult(String model, EnsembleMemberOutcome outcome, AiEvaluationResult result, long latencyMs) {
+    }
+
+    /**
+     * {@code disagreement} is the population standard deviation of the counted members' scores.
+     */
+    public record EnsembleResult(AiEvaluationResult aggregate, BigDecimal disagreement, List<MemberResult> members) {
+
+        public int counted() {
+            return (int) members.stream().filter(m -> m.outcome() == EnsembleMemberOutcome.COMPLETED).count();
+        }
+    }
+
+    private record Member(String model, Sinks.One<Boolean> cancel, CompletableFuture<MemberResult> future) {
+    }
+
+    private final LlmGateway llmGateway;
+    private final EvaluationResponseParser responseParser;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final List<String> models;
+    private final long timeoutMs;
+    private final int minResults;
+    private final DistributionSummary disagreement;
+    private final Timer latency;
+
+    public EnsembleEvaluator(LlmGateway llmGateway,
+                             EvaluationResponseParser responseParser,
+                             @Qualifier(AsyncConfig.LLM_ENSEMBLE_EXECUTOR) ThreadPoolTaskExecutor executor,
+                             MeterRegistry meterRegistry,
+                             @Value("${ai.evaluation.ensemble.models:${ai.evaluation.routing.models:${spring.ai.openai.chat.options.model}}}") String models,
+                             @Value("${ai.evaluation.ensemble.timeout-seconds:45}") long timeoutSeconds,
+                             @Value("${ai.evaluation.ensemble.min-results:2}") int minResults) {
+        this.llmGateway = llmGateway;
+        this.responseParser = responseParser;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.models = Arrays.stream(models.split(","))
+                .map(String::trim)
+                .filter(model -> !model.isEmpty())
+                .distinct()
+                .toList();
+        if (this.models.isEmpty()) {
+            throw new IllegalStateException("ai.evaluation.ensemble.models must name at least one model");
+        }
+        this.timeoutMs = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        // A quorum larger than the ensemble could never be met
+        this.minResults = Math.max(1, Math.min(minResults, this.models.size()));
+
+        this.disagreement = DistributionSummary.builder("ai.evaluation.ensemble.disagreement")
+                .description("Standard deviation of the member scores of an ensemble evaluation")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.latency = Timer.builder("ai.evaluation.ensemble.latency")
+                .description("Wall-clock time of a whole ensemble evaluation")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public EnsembleResult evaluate(String promptText) {
+        long started = System.nanoTime();
+
+        List<Member> members = new ArrayList<>();
+        for (String model : models) {
+            Sinks.One<Boolean> cancel = Sinks.one();
+            CompletableFuture<MemberResult> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> call(promptText, model, cancel), executor);
+            } catch (RejectedExecutionException e) {
+                log.warn("No ensemble thread free for model {}, leaving it out", model);
+                future = CompletableFuture.failedFuture(e);
+            }
+            members.add(new Member(model, cancel, future));
+        }
+
+        try {
+            CompletableFuture.allOf(members.stream().map(Member::future).toArray(CompletableFuture[]::new))
+                    .get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Stragglers are dealt with below; a failed member is simply not counted
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            members.forEach(m -> m.cancel().tryEmitValue(true));
+            throw new RuntimeException("Interrupted while waiting for the ensemble", e);
+        }
+
+        List<MemberResult> results = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (Member member : members) {
+            results.add(collect(member, failures));
+        }
+        latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        results.forEach(r -> meterRegistry.counter("ai.evaluation.ensemble.members",
+                "model", r.model(), "outcome", r.outcome().name()).increment());
+
+        List<AiEvaluationResult> counted = results.stream()
+                .filter(r -> r.outcome() == EnsembleMemberOutcome.COMPLETED)
+                .map(MemberResult::result)
+                .toList();
+        if (counted.size() < minResults) {
+            if (counted.isEmpty() && !failures.isEmpty()
+                    && failures.stream().allMatch(LlmUnavailableException.class::isInstance)) {
+                throw (LlmUnavailableException) failures.get(0);
+            }
+            throw new TransientEvaluationException("Only " + counted.size() + " of " + models.size()
+                    + " ensemble models answered in time (" + minResults + " needed)");
+        }
+
+        return aggregate(counted, results);
+    }
+
+    private MemberResult call(String promptText, String model, Sinks.One<Boolean> cancel) {
+        long started = System.nanoTime();
+        LlmGateway.Completion completion = llmGateway.complete(promptText, model, cancel);
+        AiEvaluationResult result = responseParser.toResult(completion.json(), completion.model());
+        return new MemberResult(model, EnsembleMemberOutcome.COMPLETED, result,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private MemberResult collect(Member member, List<Throwable> failures) {
+        CompletableFuture<MemberResult> future = member.future();
+        if (!future.isDone()) {
+            // Late: stop the stream so we do not keep paying for tokens nobody will read
+            member.cancel().tryEmitValue(true);
+            log.info("Ensemble model {} missed the {} ms deadline, cancelled", member.model(), timeoutMs);
+            return new MemberResult(member.model(), EnsembleMemberOutcome.TIMED_OUT, null, timeoutMs);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            failures.add(cause);
+            log.warn("Ensemble model {} failed: {}", member.model(), cause.getMessage());
+            return new MemberResult(member.model(), EnsembleMemberOutcome.FAILED, null, -1);
+        }
+    }
+
+    /**
+     * Scores and confidences are averaged; the prose comes from the member closest to the average score,
+     * since blending free text from several models reads badly.
+     */
+    private EnsembleResult aggregate(List<AiEvaluationResult> counted, List<MemberResult> members) {
+        double mean = counted.stream().mapToDouble(r -> r.getScore().doubleValue()).average().orElse(0);
+        double variance = counted.stream()
+                .mapToDouble(r -> Math.pow(r.getScore().doubleValue() - mean, 2))
+                .average().orElse(0);
+        double stdDev = Math.sqrt(variance);
+        double confidence = counted.stream().mapToDouble(r -> r.getConfidenceScore().doubleValue()).average().orElse(0);
+
+        AiEvaluationResult representative = counted.stream()
+                .min(Comparator.comparingDouble(r -> Math.abs(r.getScore().doubleValue() - mean)))
+                .orElseThrow();
+
+        disagreement.record(stdDev);
+        AiEvaluationResult aggregate = AiEvaluationResult.builder()
+                .score(BigDecimal.valueOf(mean).setScale(2, RoundingMode.HALF_UP))
+                .summary(representative.getSummary())
+                .strengths(representative.getStrengths())
+                .weaknesses(representative.getWeaknesses())
+                .improvementTips(representative.getImprovementTips())
+                .confidenceScore(BigDecimal.valueOf(confidence).setScale(2, RoundingMode.HALF_UP))
+                .modelUsed("ensemble(" + counted.size() + "/" + members.size() + ")")
+                .build();
+        return new EnsembleResult(aggregate, BigDecimal.valueOf(stdDev).setScale(2, RoundingMode.HALF_UP), members);
+    }
+}
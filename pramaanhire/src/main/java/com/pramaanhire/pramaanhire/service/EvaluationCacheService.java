@@ -0,0 +1,134 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.AiEvaluationResult;
+import com.pramaanhire.pramaanhire.dto.JobPromptContext;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationCacheEntry;
+import com.pramaanhire.pramaanhire.entity.ApplicationAnswer;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationCacheRepository;
+import com.pramaanhire.pramaanhire.util.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache of LLM evaluations. Identical job + resume + answers + prompt version
+ * always produce the same key, so a reapplication or a retry after a crash reuses the stored result.
+ */
+@Service
+@Slf4j
+public class EvaluationCacheService {
+
+    private final AiEvaluationCacheRepository cacheRepository;
+    private final boolean enabled;
+    private final String promptVersion;
+    private final long ttlHours;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter tokensSaved;
+
+    public EvaluationCacheService(AiEvaluationCacheRepository cacheRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ai.evaluation.cache.enabled:true}") boolean enabled,
+                                  @Value("${ai.evaluation.prompt-version:v1}") String promptVersion,
+                                  @Value("${ai.evaluation.cache.ttl-hours:720}") long ttlHours,
+                                  @Value("${ai.evaluation.cache.max-entries:50000}") int maxEntries) {
+        this.cacheRepository = cacheRepository;
+        this.enabled = enabled;
+        this.promptVersion = promptVersion;
+        this.ttlHours = ttlHours;
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("ai.evaluation.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("ai.evaluation.cache.misses").register(meterRegistry);
+        this.tokensSaved = Counter.builder("ai.evaluation.cache.tokens.saved")
+                .description("Estimated prompt tokens not sent to the LLM thanks to cache hits")
+                .register(meterRegistry);
+    }
+
+    public String buildKey(JobPromptContext job, List<ApplicationAnswer> answers, String resumeText, String model) {
+        Map<Long, String> answerByQuestion = new HashMap<>();
+        answers.forEach(ans -> answerByQuestion.put(ans.getQuestion().getId(), ans.getAnswerText()));
+
+        List<String> parts = new ArrayList<>();
+        parts.add(promptVersion);
+        parts.add(model);
+        // Covers title, description and question texts
+        parts.add(job.getContentHash());
+        parts.add(resumeText);
+        job.getQuestions().keySet().forEach(questionId -> {
+            parts.add(String.valueOf(questionId));
+            parts.add(answerByQuestion.get(questionId));
+        });
+        return HashUtil.sha256Hex(parts.toArray(new String[0]));
+    }
+
+    @Transactional
+    public Optional<AiEvaluationResult> lookup(String cacheKey, int estimatedPromptTokens) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Optional<AiEvaluationCacheEntry> entry = cacheRepository.findByCacheKey(cacheKey)
+                .filter(e -> e.getCreatedAt().isAfter(LocalDateTime.now().minusHours(ttlHours)));
+
+        if (entry.isEmpty()) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        tokensSaved.increment(estimatedPromptTokens);
+
+        AiEvaluationCacheEntry cached = entry.get();
+        cached.setHitCount(cached.getHitCount() + 1);
+        cached.setLastUsedAt(LocalDateTime.now());
+        cacheRepository.save(cached);
+
+        return Optional.of(AiEvaluationResult.builder()
+                .score(cached.getScore())
+                .summary(cached.getSummary())
+                .strengths(cached.getStrengths())
+                .weaknesses(cached.getWeaknesses())
+                .improvementTips(cached.getImprovementTips())
+                .confidenceScore(cached.getConfidenceScore())
+                .modelUsed(cached.getModelUsed())
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void store(String cacheKey, AiEvaluationResult result) {
+        if (!enabled) {
+            return;
+        }
+
+        // Another worker may have evaluated the same content concurrently; its entry is just as good
+        int inserted = cacheRepository.insertIfAbsent(cacheKey, result.getScore(), result.getSummary(),
+                result.getStrengths(), result.getWeaknesses(), result.getImprovementTips(),
+                result.getConfidenceScore(), result.getModelUsed(), LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("Evaluation cache entry {} already exists", cacheKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.evaluation.cache.eviction-interval-ms:3600000}")
+    @Transactional
+    public void evict() {
+        int expired = cacheRepository.deleteExpired(LocalDateTime.now().minusHours(ttlHours));
+        int trimmed = cacheRepository.trimToSize(maxEntries);
+        if (expired + trimmed > 0) {
+            log.info("Evicted {} expired and {} least recently used evaluation cache entries.", expired, trimmed);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.EvaluationPrompt;
+import com.pramaanhire.pramaanhire.dto.JobPromptContext;
+import com.pramaanhire.pramaanhire.entity.ApplicationAnswer;
+import com.pramaanhire.pramaanhire.util.TokenEstimator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles evaluation prompts within a token budget. Resume text is cleaned first; if the prompt is
+ * still too large, content is cut in priority order: low-value resume sections, then the job description
+ * (down to a floor), then the tail of the resume, and finally overly long screening answers.
+ */
+@Component
+public class EvaluationPromptBuilder {
+
+    private static final String TRUNCATION_MARKER = "\n[...truncated]";
+
+    private final ResumeCompactor resumeCompactor;
+    private final int maxPromptTokens;
+    private final int minJobDescriptionTokens;
+    private final int maxAnswerTokens;
+
+    public EvaluationPromptBuilder(ResumeCompactor resumeCompactor,
+                                   @Value("${ai.evaluation.prompt.max-tokens:6000}") int maxPromptTokens,
+                                   @Value("${ai.evaluation.prompt.min-job-description-tokens:500}") int minJobDescriptionTokens,
+                                   @Value("${ai.evaluation.prompt.max-answer-tokens:300}") int maxAnswerTokens) {
+        this.resumeCompactor = resumeCompactor;
+        this.maxPromptTokens = maxPromptTokens;
+        this.minJobDescriptionTokens = minJobDescriptionTokens;
+        this.maxAnswerTokens = maxAnswerTokens;
+    }
+
+    public EvaluationPrompt buildPrompt(JobPromptContext job, List<ApplicationAnswer> answers, String resumeText) {
+        Map<Long, String> answerByQuestion = new HashMap<>();
+        for (ApplicationAnswer ans : answers) {
+            // getId() on the lazy question proxy does not hit the database
+            answerByQuestion.put(ans.getQuestion().getId(), ans.getAnswerText());
+        }
+        List<String[]> rawAnswers = new ArrayList<>();
+        job.getQuestions().forEach((questionId, questionText) -> {
+            if (answerByQuestion.containsKey(questionId)) {
+                rawAnswers.add(new String[]{questionText, answerByQuestion.get(questionId)});
+            }
+        });
+        int rawTokens = TokenEstimator.estimate(render(job.getHeader(), rawAnswers, resumeText));
+
+        String jobDescription = job.getDescription();
+        String resume = resumeCompactor.clean(resumeText);
+        List<String[]> qa = new ArrayList<>();
+        for (String[] pair : rawAnswers) {
+            qa.add(new String[]{pair[0], resumeCompactor.normalize(pair[1])});
+        }
+
+        // Everything except the three variable sections: instructions, field spec and labels
+        int fixedTokens = TokenEstimator.estimate(render(renderJobHeader(job.getTitle(), ""), List.of(), ""));
+        int available = maxPromptTokens - fixedTokens;
+
+        if (over(available, jobDescription, qa, resume)) {
+            resume = resumeCompactor.dropLowPrioritySections(resume);
+        }
+        if (over(available, jobDescription, qa, resume)) {
+            int room = available - TokenEstimator.estimate(resume) - answerTokens(qa);
+            jobDescription = TokenEstimator.truncate(jobDescription, Math.max(minJobDescriptionTokens, room), TRUNCATION_MARKER);
+        }
+        if (over(available, jobDescription, qa, resume)) {
+            int room = available - TokenEstimator.estimate(jobDescription) - answerTokens(qa);
+            resume = TokenEstimator.truncate(resume, Math.max(0, room), TRUNCATION_MARKER);
+        }
+        if (over(available, jobDescription, qa, resume)) {
+            for (String[] pair : qa) {
+                pair[1] = TokenEstimator.truncate(pair[1], maxAnswerTokens, TRUNCATION_MARKER);
+            }
+        }
+
+        // The precompiled header is reused unless the description had to be cut for this candidate
+        String header = jobDescription.equals(job.getDescription())
+                ? job.getHeader()
+                : renderJobHeader(job.getTitle(), jobDescription);
+        String text = render(header, qa, resume);
+        return EvaluationPrompt.builder()
+                .text(text)
+                .candidateSection(renderCandidate(qa, resume))
+                .jobDescription(jobDescription)
+                .rawTokens(rawTokens)
+                .compactedTokens(TokenEstimator.estimate(text))
+                .build();
+    }
+
+    public String renderJobHeader(String title, String jobDescription) {
+        return "You are an expert HR AI assistant. Evaluate the following candidate application for the job role: "
+                + title + "\n\n"
+                + "Job Description:\n" + jobDescription + "\n\n";
+    }
+
+    /**
+     * A multi-candidate prompt and the applications it covers, in the order they were offered.
+     */
+    public record BatchPrompt(String text, List<Long> applicationIds) {
+    }
+
+    /**
+     * Several candidates for the same job in one request: the job context is sent once and each
+     * candidate gets its own section, keyed by application ID. The batch is held to the same token budget
+     * as a single prompt; candidates are taken in order until the next one would not fit, and the first
+     * is always taken. The shared description is the shortest any section was budgeted against, so every
+     * section still fits next to it.
+     */
+    public BatchPrompt buildBatchPrompt(JobPromptContext job, Map<Long, EvaluationPrompt> prompts) {
+        String jobDescription = prompts.values().stream()
+                .map(EvaluationPrompt::getJobDescription)
+                .min(Comparator.comparingInt(String::length))
+                .orElse(job.getDescription());
+        int available = maxPromptTokens
+                - TokenEstimator.estimate(renderBatch(job.getTitle(), jobDescription, Map.of()));
+
+        Map<Long, String> sections = new LinkedHashMap<>();
+        int used = 0;
+        for (Map.Entry<Long, EvaluationPrompt> entry : prompts.entrySet()) {
+            String section = entry.getValue().getCandidateSection();
+            int tokens = TokenEstimator.estimate(renderSection(entry.getKey(), section));
+            if (!sections.isEmpty() && used + tokens > available) {
+                break;
+            }
+            sections.put(entry.getKey(), section);
+            used += tokens;
+        }
+        return new BatchPrompt(renderBatch(job.getTitle(), jobDescription, sections), List.copyOf(sections.keySet()));
+    }
+
+    private String renderBatch(String title, String jobDescription, Map<Long, String> candidateSections) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("You are an expert HR AI assistant. Evaluate each of the following ")
+          .append(candidateSections.size()).append(" candidate applications independently for the job role: ")
+          .append(title).append("\n\n");
+
+        sb.append("Job Description:\n").append(jobDescription).append("\n\n");
+
+        candidateSections.forEach((applicationId, section) -> sb.append(renderSection(applicationId, section)));
+
+        sb.append("\nEvaluate every candidate on their own merits against the job description; do not compare them to each other.\n");
+        sb.append("Provide the output as a strict JSON array with exactly one object per candidate, each with the following fields:\n");
+        sb.append("- applicationId (number, copied from the candidate header)\n");
+        appendFieldSpec(sb);
+        sb.append("Do not include markdown formatting like ```json, just the raw JSON array.");
+
+        return sb.toString();
+    }
+
+    private String renderSection(Long applicationId, String section) {
+        return "=== Candidate applicationId=" + applicationId + " ===\n" + section + "\n";
+    }
+
+    private String render(String header, List<String[]> answers, String resumeText) {
+        StringBuilder sb = new StringBuilder(header);
+        sb.append(renderCandidate(answers, resumeText));
+
+        sb.append("\nEvaluate the candidate based on the resume and answers against the job description.\n");
+        sb.append("Provide the output in strict JSON format with the following fields:\n");
+        appendFieldSpec(sb);
+        sb.append("Do not include markdown formatting like ```json, just the raw JSON.");
+
+        return sb.toString();
+    }
+
+    private String renderCandidate(List<String[]> answers, String resumeText) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Candidate Resume Text:\n").append(resumeText).append("\n\n");
+
+        sb.append("Screening Questions and Answers:\n");
+        for (String[] pair : answers) {
+            sb.append("Q: ").append(pair[0]).append("\n");
+            sb.append("A: ").append(pair[1]).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private boolean over(int available, String jobDescription, List<String[]> answers, String resume) {
+        return TokenEstimator.estimate(jobDescription) + TokenEstimator.estimate(resume) + answerTokens(answers) > available;
+    }
+
+    private int answerTokens(List<String[]> answers) {
+        int tokens = 0;
+        for (String[] pair : answers) {
+            tokens += TokenEstimator.estimate(pair[0]) + TokenEstimator.estimate(pair[1]) + 2;
+        }
+        return tokens;
+    }
+
+    private void appendFieldSpec(StringBuilder sb) {
+        sb.append("- score (number 0-100)\n");
+        sb.append("- summary (string, brief overview)\n");
+        sb.append("- strengths (string, comma separated)\n");
+        sb.append("- weaknesses (string, comma separated)\n");
+        sb.append("- improvementTips (string, actionable advice)\n");
+        sb.append("- confidenceScore (number 0-100, how confident are you in this evaluation)\n");
+    }
+}
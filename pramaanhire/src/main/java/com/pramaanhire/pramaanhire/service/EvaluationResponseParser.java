@@ -0,0 +1,96 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pramaanhire.pramaanhire.dto.AiEvaluationResult;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class EvaluationResponseParser {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Parses a complete (non-streamed) response. Markdown fences around the JSON are tolerated.
+     */
+    public JsonNode readTree(String response) {
+        StreamingJsonAssembler assembler = newAssembler();
+        assembler.feed(response);
+        return assembler.result();
+    }
+
+    public StreamingJsonAssembler newAssembler() {
+        return new StreamingJsonAssembler(objectMapper);
+    }
+
+    /**
+     * Splits a batched response into per-application JSON objects. Elements that are missing an
+     * applicationId are dropped; the caller treats any application without an entry as failed.
+     */
+    public Map<Long, JsonNode> parseBatch(JsonNode root) {
+        if (!root.isArray()) {
+            throw new PermanentEvaluationException("Batched AI response was not a JSON array");
+        }
+
+        Map<Long, JsonNode> byApplication = new LinkedHashMap<>();
+        for (JsonNode element : root) {
+            if (element.path("applicationId").canConvertToLong()) {
+                byApplication.put(element.path("applicationId").asLong(), element);
+            }
+        }
+        return byApplication;
+    }
+
+    /**
+     * True when every one of the {@code candidates} applications got a usable evaluation, i.e. nothing in
+     * the batch would have to fall back to a single request.
+     */
+    public boolean isValidBatch(JsonNode root, int candidates) {
+        if (root == null || !root.isArray()) {
+            return false;
+        }
+        Map<Long, JsonNode> byApplication = parseBatch(root);
+        return byApplication.size() == candidates && byApplication.values().stream().allMatch(this::isValid);
+    }
+
+    public AiEvaluationResult toResult(JsonNode node, String model) {
+        if (!isValid(node)) {
+            throw new PermanentEvaluationException("AI response is missing required fields or has out-of-range scores");
+        }
+
+        return AiEvaluationResult.builder()
+                .score(BigDecimal.valueOf(node.path("score").asDouble()))
+                .summary(node.path("summary").asText())
+                .strengths(node.path("strengths").asText())
+                .weaknesses(node.path("weaknesses").asText())
+                .improvementTips(node.path("improvementTips").asText())
+                .confidenceScore(BigDecimal.valueOf(node.path("confidenceScore").asDouble()))
+                .modelUsed(model)
+                .build();
+    }
+
+    public boolean isValid(JsonNode node) {
+        return node != null
+                && node.isObject()
+                && isScore(node.path("score"))
+                && isScore(node.path("confidenceScore"))
+                && node.path("summary").isTextual()
+                && !node.path("summary").asText().isBlank();
+    }
+
+    // Models occasionally quote numbers ("85"); Jackson's asDouble copes with both forms
+    private boolean isScore(JsonNode value) {
+        if (!value.isNumber() && !(value.isTextual() && value.asText().trim().matches("\\d+(\\.\\d+)?"))) {
+            return false;
+        }
+        double score = value.asDouble();
+        return score >= 0 && score <= 100;
+    }
+}
@@ -0,0 +1,350 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.ClaimCandidate;
+import com.pramaanhire.pramaanhire.dto.ClaimedEvaluationTask;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
+import com.pramaanhire.pramaanhire.entity.Application;
+import com.pramaanhire.pramaanhire.entity.ReEvaluationCampaign;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationTaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable work queue for AI evaluations. Each application has exactly one task row; a worker
+ * holds a time-limited lease on it while evaluating so that other instances leave it alone.
+ */
+@Service
+@Slf4j
+public class EvaluationTaskService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final AiEvaluationTaskRepository taskRepository;
+    private final FairTaskSelector fairTaskSelector;
+    private final String instanceId;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final long baseDelaySeconds;
+    private final long maxDelaySeconds;
+    private final long targetLatencySeconds;
+    private final int candidateWindow;
+    private final Counter transientFailures;
+    private final Counter permanentFailures;
+    private final Counter deadLettered;
+    private final Map<FairTaskSelector.Lane, Timer> queueWait = new EnumMap<>(FairTaskSelector.Lane.class);
+
+    public EvaluationTaskService(AiEvaluationTaskRepository taskRepository,
+                                 FairTaskSelector fairTaskSelector,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ai.evaluation.queue.instance-id:}") String instanceId,
+                                 @Value("${ai.evaluation.queue.lease-seconds:600}") long leaseSeconds,
+                                 @Value("${ai.evaluation.retry.max-attempts:5}") int maxAttempts,
+                                 @Value("${ai.evaluation.retry.base-delay-seconds:30}") long baseDelaySeconds,
+                                 @Value("${ai.evaluation.retry.max-delay-seconds:3600}") long maxDelaySeconds,
+                                 @Value("${ai.evaluation.scheduling.target-latency-seconds:21600}") long targetLatencySeconds,
+                                 @Value("${ai.evaluation.scheduling.candidate-window:500}") int candidateWindow) {
+        this.taskRepository = taskRepository;
+        this.fairTaskSelector = fairTaskSelector;
+        this.instanceId = instanceId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : instanceId;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.baseDelaySeconds = baseDelaySeconds;
+        this.maxDelaySeconds = maxDelaySeconds;
+        this.targetLatencySeconds = targetLatencySeconds;
+        this.candidateWindow = candidateWindow;
+        this.transientFailures = Counter.builder("ai.evaluation.failures").tag("type", "transient").register(meterRegistry);
+        this.permanentFailures = Counter.builder("ai.evaluation.failures").tag("type", "permanent").register(meterRegistry);
+        this.deadLettered = Counter.builder("ai.evaluation.dead-lettered").register(meterRegistry);
+        for (FairTaskSelector.Lane lane : FairTaskSelector.Lane.values()) {
+            queueWait.put(lane, Timer.builder("ai.evaluation.queue.wait")
+                    .description("Time a task was due before it was claimed")
+                    .tag("lane", lane.tag())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Registers a freshly submitted application. The task starts out leased by this instance because
+     * the submit path dispatches the evaluation itself right after commit.
+     */
+    @Transactional
+    public void enqueueLeased(Application application) {
+        LocalDateTime now = LocalDateTime.now();
+        AiEvaluationTask task = AiEvaluationTask.builder()
+                .application(application)
+                .status(EvaluationTaskStatus.IN_PROGRESS)
+                .attempts(1)
+                .nextAttemptAt(now)
+                .leaseOwner(instanceId)
+                .leaseExpiresAt(now.plusSeconds(leaseSeconds))
+                .build();
+        taskRepository.save(task);
+    }
+
+    /**
+     * Registers an application for the scheduler to pick up. Applications that did not pass pre-screening
+     * go in at {@link AiEvaluationTask#PRIORITY_LOW} and wait behind more promising ones, though never past
+     * the low-priority wait limit or into their job's urgent window.
+     */
+    @Transactional
+    public void enqueuePending(Application application, int priority) {
+        AiEvaluationTask task = AiEvaluationTask.builder()
+                .application(application)
+                .status(EvaluationTaskStatus.PENDING)
+                .priority(priority)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        taskRepository.save(task);
+    }
+
+    /**
+     * Queues an application again on behalf of a re-evaluation campaign. A task that is still waiting or
+     * running is only tagged. The application keeps its current evaluation until the new one is saved.
+     */
+    @Transactional
+    public void enqueueReEvaluation(Application application, ReEvaluationCampaign campaign) {
+        AiEvaluationTask task = taskRepository.findByApplicationId(application.getId())
+                .orElseGet(() -> AiEvaluationTask.builder()
+                        .application(application)
+                        .status(EvaluationTaskStatus.PENDING)
+                        .nextAttemptAt(LocalDateTime.now())
+                        .build());
+
+        if (task.getStatus() == EvaluationTaskStatus.COMPLETED || task.getStatus() == EvaluationTaskStatus.DEAD_LETTER) {
+            task.setStatus(EvaluationTaskStatus.PENDING);
+            task.setAttempts(0);
+            task.setPriority(AiEvaluationTask.PRIORITY_NORMAL);
+            task.setNextAttemptAt(LocalDateTime.now());
+            task.setLastError(null);
+        }
+        task.setCampaign(campaign);
+        task.setReEvaluation(true);
+        taskRepository.save(task);
+    }
+
+    /**
+     * True if a re-evaluation campaign queued the application's task and that run has not completed yet,
+     * so an existing evaluation must be replaced rather than treated as already done.
+     */
+    @Transactional(readOnly = true)
+    public boolean isReEvaluation(Long applicationId) {
+        return taskRepository.findByApplicationId(applicationId)
+                .map(AiEvaluationTask::isReEvaluation)
+                .orElse(false);
+    }
+
+    /**
+     * Claims due tasks (pending, or leased by an instance whose lease has lapsed) and returns them in
+     * dispatch order: up to {@code expressLimit} express tasks plus up to {@code limit} others, chosen by
+     * {@link FairTaskSelector}. Every claim counts as an attempt, so an application that keeps
+     * killing its worker ends up dead-lettered instead of being re-leased forever.
+     * <p>
+     * Always commits on its own: a claim made from an after-commit callback would otherwise join the
+     * finished outer transaction, its leases would never be written and the next poll would claim the
+     * same tasks again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<ClaimedEvaluationTask> claimBatch(int limit, int expressLimit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimCandidate> candidates = taskRepository.findClaimCandidates(
+                now, targetLatencySeconds, fairTaskSelector.lowPriorityMaxWaitSeconds(),
+                fairTaskSelector.urgentWindowSeconds(), Math.max(limit, expressLimit), candidateWindow);
+        List<ClaimCandidate> selected = fairTaskSelector.select(candidates, expressLimit, limit);
+        if (selected.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> order = selected.stream().map(ClaimCandidate::getTaskId).toList();
+        Map<Long, ClaimCandidate> byTask = new HashMap<>();
+        selected.forEach(c -> byTask.put(c.getTaskId(), c));
+
+        // Tasks another instance claimed in the meantime are simply missing here
+        List<AiEvaluationTask> tasks = new ArrayList<>(taskRepository.lockClaimable(order, now));
+        tasks.sort(Comparator.comparingInt(task -> order.indexOf(task.getId())));
+        List<ClaimedEvaluationTask> claimed = new ArrayList<>();
+
+        for (AiEvaluationTask task : tasks) {
+            ClaimCandidate candidate = byTask.get(task.getId());
+            queueWait.get(FairTaskSelector.lane(candidate.getPriority()))
+                    .record(Math.max(0, Math.round(candidate.getWaitingSeconds() * 1000)), TimeUnit.MILLISECONDS);
+
+            if (task.getAttempts() >= maxAttempts) {
+                deadLetter(task, "Gave up after " + task.getAttempts() + " attempts. Last error: " + task.getLastError());
+                continue;
+            }
+            task.setStatus(EvaluationTaskStatus.IN_PROGRESS);
+            task.setAttempts(task.getAttempts() + 1);
+            task.setLeaseOwner(instanceId);
+            task.setLeaseExpiresAt(now.plusSeconds(leaseSeconds));
+            claimed.add(ClaimedEvaluationTask.builder()
+                    .applicationId(task.getApplication().getId())
+                    .jobId(task.getApplication().getJob().getId())
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+
+        return claimed;
+    }
+
+    @Transactional
+    public void markCompleted(Long applicationId) {
+        taskRepository.findByApplicationId(applicationId).ifPresent(task -> {
+            task.setStatus(EvaluationTaskStatus.COMPLETED);
+            task.setPriority(AiEvaluationTask.PRIORITY_NORMAL);
+            // The campaign's run is done; later retries must not replace the new evaluation again
+            task.setReEvaluation(false);
+            task.setLeaseOwner(null);
+            task.setLeaseExpiresAt(null);
+            task.setLastError(null);
+            taskRepository.save(task);
+        });
+    }
+
+    /**
+     * Records a failed attempt. Permanent failures (unparseable output, unreadable or empty resumes) and
+     * tasks that have used up their attempts are dead-lettered; anything else is retried with
+     * exponential backoff and jitter.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(Long applicationId, Throwable error) {
+        taskRepository.findByApplicationId(applicationId).ifPresent(task -> {
+            boolean permanent = isPermanent(error);
+            (permanent ? permanentFailures : transientFailures).increment();
+            String message = truncate(error.getClass().getSimpleName() + ": " + error.getMessage());
+
+            if (permanent || task.getAttempts() >= maxAttempts) {
+                deadLetter(task, message);
+            } else {
+                long delay = backoffSeconds(task.getAttempts());
+                task.setStatus(EvaluationTaskStatus.PENDING);
+                task.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+                task.setLeaseOwner(null);
+                task.setLeaseExpiresAt(null);
+                task.setLastError(message);
+                log.info("Evaluation for application ID: {} failed (attempt {}/{}), retrying in {}s",
+                        applicationId, task.getAttempts(), maxAttempts, delay);
+            }
+            taskRepository.save(task);
+        });
+    }
+
+    /**
+     * Parks a task until the LLM is expected to be reachable again. The attempt it was claimed with is
+     * handed back, so a long outage cannot push applications into the dead-letter state.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void deferUntil(Long applicationId, LocalDateTime retryAt, String reason) {
+        taskRepository.findByApplicationId(applicationId).ifPresent(task -> {
+            task.setStatus(EvaluationTaskStatus.PENDING);
+            task.setAttempts(Math.max(0, task.getAttempts() - 1));
+            task.setNextAttemptAt(retryAt);
+            task.setLeaseOwner(null);
+            task.setLeaseExpiresAt(null);
+            task.setLastError(truncate(reason));
+            taskRepository.save(task);
+        });
+    }
+
+    /**
+     * Puts a dead-lettered task back on the queue with a fresh attempt budget.
+     */
+    @Transactional
+    public void requeue(Long applicationId) {
+        AiEvaluationTask task = taskRepository.findByApplicationId(applicationId)
+                .orElseThrow(() -> new RuntimeException("No evaluation task found for this application"));
+
+        if (task.getStatus() != EvaluationTaskStatus.DEAD_LETTER) {
+            throw new RuntimeException("Only failed evaluations can be retried");
+        }
+
+        task.setStatus(EvaluationTaskStatus.PENDING);
+        task.setAttempts(0);
+        task.setNextAttemptAt(LocalDateTime.now());
+        taskRepository.save(task);
+    }
+
+    /**
+     * Moves a task into the express lane so it is claimed on the next poll, ahead of all other work.
+     * A dead-lettered task gets a fresh attempt budget, as with {@link #requeue}.
+     */
+    @Transactional
+    public void expedite(Long applicationId) {
+        AiEvaluationTask task = taskRepository.findByApplicationId(applicationId)
+                .orElseThrow(() -> new RuntimeException("No evaluation task found for this application"));
+
+        switch (task.getStatus()) {
+            case COMPLETED -> throw new RuntimeException("This application has already been evaluated");
+            case IN_PROGRESS -> throw new RuntimeException("AI evaluation is already running for this application");
+            case DEAD_LETTER -> task.setAttempts(0);
+            default -> { }
+        }
+
+        task.setStatus(EvaluationTaskStatus.PENDING);
+        task.setPriority(AiEvaluationTask.PRIORITY_EXPRESS);
+        task.setNextAttemptAt(LocalDateTime.now());
+        taskRepository.save(task);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingTasks() {
+        int created = taskRepository.backfillMissingTasks(LocalDateTime.now());
+        if (created > 0) {
+            log.info("Queued {} unprocessed applications that had no evaluation task.", created);
+        }
+    }
+
+    private void deadLetter(AiEvaluationTask task, String reason) {
+        deadLettered.increment();
+        task.setStatus(EvaluationTaskStatus.DEAD_LETTER);
+        task.setLeaseOwner(null);
+        task.setLeaseExpiresAt(null);
+        task.setLastError(truncate(reason));
+        log.warn("Evaluation for application ID: {} moved to dead-letter: {}", task.getApplication().getId(), reason);
+    }
+
+    private boolean isPermanent(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof PermanentEvaluationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // "Equal jitter": half of the exponential delay is fixed, the other half random
+    private long backoffSeconds(int attempts) {
+        long exponential = baseDelaySeconds << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(maxDelaySeconds, exponential);
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
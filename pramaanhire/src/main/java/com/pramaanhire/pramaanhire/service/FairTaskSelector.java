@@ -0,0 +1,192 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.ClaimCandidate;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Decides which due evaluation tasks are claimed next. Express tasks (HR asked for them) always go first.
+ * The rest are shared out with start-time fair queuing, first across HR owners and then across each
+ * owner's jobs, so a job with thousands of applicants gets the same turn as a job with ten. Jobs close to
+ * their application deadline get a larger share, and within a job the earliest deadline is served first.
+ * Tags are kept between polls, so an owner that was just served a lot waits its turn in the next poll too.
+ * Low-priority tasks compete as normal once they have waited too long or their job is inside the urgent
+ * window, so a steady stream of promising applicants cannot hold them back forever.
+ */
+@Component
+public class FairTaskSelector {
+
+    public enum Lane {
+        EXPRESS, NORMAL, LOW;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record JobTag(Long ownerId, double finish) {}
+
+    private final double urgentWindowSeconds;
+    private final double urgentWeight;
+    private final double lowPriorityMaxWaitSeconds;
+
+    // Virtual time across owners, and per owner across its jobs
+    private double ownerClock;
+    private final Map<Long, Double> ownerFinish = new HashMap<>();
+    private final Map<Long, Double> jobClocks = new HashMap<>();
+    private final Map<Long, JobTag> jobFinish = new HashMap<>();
+
+    public FairTaskSelector(@Value("${ai.evaluation.scheduling.urgent-window-hours:24}") long urgentWindowHours,
+                            @Value("${ai.evaluation.scheduling.urgent-weight:4}") double urgentWeight,
+                            @Value("${ai.evaluation.scheduling.low-priority-max-wait-seconds:7200}") long lowPriorityMaxWaitSeconds) {
+        this.urgentWindowSeconds = urgentWindowHours * 3600.0;
+        this.urgentWeight = urgentWeight;
+        this.lowPriorityMaxWaitSeconds = lowPriorityMaxWaitSeconds;
+    }
+
+    public double urgentWindowSeconds() {
+        return urgentWindowSeconds;
+    }
+
+    public double lowPriorityMaxWaitSeconds() {
+        return lowPriorityMaxWaitSeconds;
+    }
+
+    public static Lane lane(int priority) {
+        if (priority >= AiEvaluationTask.PRIORITY_EXPRESS) {
+            return Lane.EXPRESS;
+        }
+        return priority >= AiEvaluationTask.PRIORITY_NORMAL ? Lane.NORMAL : Lane.LOW;
+    }
+
+    /**
+     * The lane a candidate is scheduled in: its own, except that a low-priority task which has waited
+     * past the limit, or whose job is inside the urgent window, is promoted to normal.
+     */
+    public Lane schedulingLane(ClaimCandidate candidate) {
+        Lane lane = lane(candidate.getPriority());
+        if (lane != Lane.LOW) {
+            return lane;
+        }
+        Double secondsToJobDeadline = candidate.getSecondsToJobDeadline();
+        boolean overdue = candidate.getWaitingSeconds() != null && candidate.getWaitingSeconds() >= lowPriorityMaxWaitSeconds;
+        boolean urgent = secondsToJobDeadline != null && secondsToJobDeadline <= urgentWindowSeconds;
+        return overdue || urgent ? Lane.NORMAL : Lane.LOW;
+    }
+
+    /**
+     * Returns the candidates to claim, in the order they should be dispatched: up to {@code expressLimit}
+     * express tasks, longest waiting first, then up to {@code limit} normal and finally low-priority tasks,
+     * each in its {@link #schedulingLane scheduling lane}.
+     */
+    public synchronized List<ClaimCandidate> select(List<ClaimCandidate> candidates, int expressLimit, int limit) {
+        List<ClaimCandidate> selected = new ArrayList<>();
+        candidates.stream()
+                .filter(c -> schedulingLane(c) == Lane.EXPRESS)
+                .sorted(Comparator.comparingDouble(ClaimCandidate::getWaitingSeconds).reversed())
+                .limit(Math.max(expressLimit, 0))
+                .forEach(selected::add);
+
+        int remaining = limit;
+        for (Lane lane : List.of(Lane.NORMAL, Lane.LOW)) {
+            if (remaining <= 0) {
+                break;
+            }
+            List<ClaimCandidate> band = candidates.stream()
+                    .filter(c -> schedulingLane(c) == lane)
+                    .toList();
+            List<ClaimCandidate> picked = fairShare(band, remaining);
+            selected.addAll(picked);
+            remaining -= picked.size();
+        }
+
+        prune();
+        return selected;
+    }
+
+    private List<ClaimCandidate> fairShare(List<ClaimCandidate> band, int limit) {
+        Map<Long, Map<Long, Deque<ClaimCandidate>>> queues = new LinkedHashMap<>();
+        band.stream()
+                .sorted(Comparator.comparingDouble(FairTaskSelector::deadline))
+                .forEach(c -> queues.computeIfAbsent(c.getHrId(), id -> new LinkedHashMap<>())
+                        .computeIfAbsent(c.getJobId(), id -> new ArrayDeque<>())
+                        .add(c));
+
+        List<ClaimCandidate> picked = new ArrayList<>();
+        while (picked.size() < limit && !queues.isEmpty()) {
+            Long owner = queues.keySet().stream()
+                    .min(Comparator.<Long>comparingDouble(id -> start(ownerFinish.get(id), ownerClock))
+                            .thenComparingDouble(id -> earliestDeadline(queues.get(id))))
+                    .orElseThrow();
+            Map<Long, Deque<ClaimCandidate>> jobs = queues.get(owner);
+            double jobClock = jobClocks.getOrDefault(owner, 0.0);
+            Long job = jobs.keySet().stream()
+                    .min(Comparator.<Long>comparingDouble(id -> start(finishOf(id), jobClock))
+                            .thenComparingDouble(id -> deadline(jobs.get(id).peek())))
+                    .orElseThrow();
+
+            ClaimCandidate task = jobs.get(job).poll();
+            picked.add(task);
+
+            ownerClock = start(ownerFinish.get(owner), ownerClock);
+            ownerFinish.put(owner, ownerClock + 1.0);
+            double jobStart = start(finishOf(job), jobClock);
+            jobClocks.put(owner, jobStart);
+            jobFinish.put(job, new JobTag(owner, jobStart + 1.0 / jobWeight(task)));
+
+            if (jobs.get(job).isEmpty()) {
+                jobs.remove(job);
+            }
+            if (jobs.isEmpty()) {
+                queues.remove(owner);
+            }
+        }
+        return picked;
+    }
+
+    // A flow that has fallen behind the clock starts at the clock, so idle time earns no credit
+    private static double start(Double finish, double clock) {
+        return finish == null ? clock : Math.max(finish, clock);
+    }
+
+    private Double finishOf(Long jobId) {
+        JobTag tag = jobFinish.get(jobId);
+        return tag == null ? null : tag.finish();
+    }
+
+    private double jobWeight(ClaimCandidate task) {
+        Double secondsToJobDeadline = task.getSecondsToJobDeadline();
+        // A deadline that has already passed means HR is waiting on the shortlist right now
+        return secondsToJobDeadline != null && secondsToJobDeadline <= urgentWindowSeconds ? urgentWeight : 1.0;
+    }
+
+    private static double deadline(ClaimCandidate task) {
+        return task.getSecondsToDeadline() == null ? Double.MAX_VALUE : task.getSecondsToDeadline();
+    }
+
+    private static double earliestDeadline(Map<Long, Deque<ClaimCandidate>> jobs) {
+        return jobs.values().stream()
+                .mapToDouble(queue -> deadline(queue.peek()))
+                .min()
+                .orElse(Double.MAX_VALUE);
+    }
+
+    // Tags at or behind the clock behave exactly like missing ones, so dropping them keeps the maps small
+    private void prune() {
+        ownerFinish.values().removeIf(finish -> finish <= ownerClock);
+        jobFinish.values().removeIf(tag -> tag.finish() <= jobClocks.getOrDefault(tag.ownerId(), 0.0));
+        jobClocks.keySet().removeIf(owner -> !ownerFinish.containsKey(owner)
+                && jobFinish.values().stream().noneMatch(tag -> tag.ownerId().equals(owner)));
+    }
+}
@@ -1,75 +1,278 @@
 package com.pramaanhire.pramaanhire.service;
 
+import com.pramaanhire.pramaanhire.dto.StoredFile;
+import com.pramaanhire.pramaanhire.entity.StoredFileRef;
+import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.repository.StoredFileRefRepository;
+import com.pramaanhire.pramaanhire.util.HashUtil;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Stores uploads by content: a file's name is its SHA-256 plus extension, kept under two levels of
+ * hash-prefix directories ({@code ab/cd/abcd...pdf}) so no directory grows without bound. Identical
+ * uploads share one file and a reference count; files left without one are swept. Files stored under the
+ * old flat UUID names still load.
+ */
 @Service
+@Slf4j
 public class FileStorageService {
 
+    private static final Pattern CONTENT_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,8})?");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[a-z0-9]{1,8}");
+    private static final int SWEEP_CHUNK = 500;
+
     private final Path fileStorageLocation;
+    private final Path tempLocation;
+    private final StoredFileRefRepository storedFileRefRepository;
+    private final ApplicationRepository applicationRepository;
+    private final ResumeTextCache resumeTextCache;
+    private final TransactionTemplate transactionTemplate;
+    private final long sweepGraceMinutes;
 
-    public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+    public FileStorageService(@Value("${file.upload-dir}") String uploadDir,
+                              StoredFileRefRepository storedFileRefRepository,
+                              ApplicationRepository applicationRepository,
+                              ResumeTextCache resumeTextCache,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${file.orphan-sweep.grace-minutes:60}") long sweepGraceMinutes) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Same file system as the final location, so the rename into place is atomic
+        this.tempLocation = this.fileStorageLocation.resolve(".tmp");
+        this.storedFileRefRepository = storedFileRefRepository;
+        this.applicationRepository = applicationRepository;
+        this.resumeTextCache = resumeTextCache;
+        this.transactionTemplate = transactionTemplate;
+        this.sweepGraceMinutes = sweepGraceMinutes;
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
     }
 
-    public String storeFile(MultipartFile file) {
+    /**
+     * Copies the upload to disk in a single read of its stream, hashing the bytes on the way through, and
+     * adds a reference for the caller. The copy goes to a temporary file first and is renamed into place,
+     * so a half-written upload is never visible; if the same content is already stored, the copy is simply
+     * dropped. Runs in the caller's transaction, so the reference disappears if the caller rolls back.
+     */
+    @Transactional
+    public StoredFile store(MultipartFile file) {
         // Normalize file name
         String originalFileName = file.getOriginalFilename();
         if (originalFileName == null) {
             throw new RuntimeException("Invalid file name");
         }
-        
-        // Generate unique file name to prevent overwrites
+
         String fileExtension = "";
         int i = originalFileName.lastIndexOf('.');
         if (i > 0) {
-            fileExtension = originalFileName.substring(i);
+            fileExtension = originalFileName.substring(i).toLowerCase(Locale.ROOT);
+        }
+        // The extension becomes part of a path; anything unusual is dropped rather than trusted
+        if (!SAFE_EXTENSION.matcher(fileExtension).matches()) {
+            fileExtension = "";
         }
-        String fileName = UUID.randomUUID().toString() + fileExtension;
 
+        Path tempFile = null;
         try {
-            // Check if the file's name contains invalid characters
-            if (fileName.contains("..")) {
-                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+            tempFile = Files.createTempFile(this.tempLocation, "upload-", ".tmp");
+            MessageDigest digest = HashUtil.newSha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String fileName = sha256 + fileExtension;
+            Path targetLocation = resolve(fileName);
+
+            // Reference first: the upsert locks the row until commit, so the orphan sweep cannot delete the
+            // file between the existence check below and this upload becoming visible
+            storedFileRefRepository.addReference(fileName, sha256, size, LocalDateTime.now());
+
+            boolean duplicate = Files.exists(targetLocation);
+            if (duplicate) {
+                Files.delete(tempFile);
+            } else {
+                Files.createDirectories(targetLocation.getParent());
+                try {
+                    Files.move(tempFile, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Another request stored the same bytes a moment ago
+                    duplicate = true;
+                    Files.deleteIfExists(tempFile);
+                }
             }
 
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            if (duplicate) {
+                log.info("Upload {} is already stored, reusing it", fileName);
+            }
 
-            return fileName;
+            return StoredFile.builder()
+                    .fileName(fileName)
+                    .path(targetLocation)
+                    .size(size)
+                    .sha256(sha256)
+                    .duplicate(duplicate)
+                    .build();
         } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
+            deleteQuietly(tempFile);
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
         }
     }
 
-    public Resource loadFileAsResource(String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new RuntimeException("File not found " + fileName);
+    /**
+     * Maps a stored name to its path: content names live in their hash shard, anything else is a legacy
+     * file in the top-level directory.
+     */
+    public Path resolve(String fileName) {
+        Path path = CONTENT_NAME.matcher(fileName).matches()
+                ? this.fileStorageLocation.resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName)
+                : this.fileStorageLocation.resolve(fileName);
+        path = path.normalize();
+        if (!path.startsWith(this.fileStorageLocation)) {
+            throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+        }
+        return path;
+    }
+
+    /**
+     * Path of an existing stored file; throws if there is none.
+     */
+    public Path locate(String fileName) {
+        Path path = resolve(fileName);
+        if (!Files.isRegularFile(path)) {
+            throw new RuntimeException("File not found " + fileName);
+        }
+        return path;
+    }
+
+    /**
+     * Strong entity tag for a stored file. Stored files are never rewritten, so the content hash in the
+     * name identifies the bytes exactly; legacy files fall back to size and modification time, which
+     * cannot change for them either.
+     */
+    public String etag(String fileName, BasicFileAttributes attributes) {
+        if (CONTENT_NAME.matcher(fileName).matches()) {
+            return "\"" + fileName.substring(0, 64) + "\"";
+        }
+        return "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+    }
+
+    /**
+     * Deletes content files that no application refers to: uploads whose submit rolled back after the file
+     * was moved into place, and therefore never got a committed reference. Each candidate is re-checked
+     * under the same row lock {@link #store} takes, so a concurrent upload of the same bytes either keeps
+     * the file or writes a fresh copy after it is gone. Stale temp files are cleared as well.
+     */
+    @Scheduled(fixedDelayString = "${file.orphan-sweep.interval-ms:3600000}",
+            initialDelayString = "${file.orphan-sweep.initial-delay-ms:600000}")
+    public void sweepOrphans() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(sweepGraceMinutes);
+        Map<String, Path> candidates = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.walk(this.fileStorageLocation, 3)) {
+            files.filter(path -> CONTENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .filter(path -> path.equals(resolve(path.getFileName().toString())))
+                    .filter(path -> olderThan(path, cutoff))
+                    .forEach(path -> candidates.put(path.getFileName().toString(), path));
+        } catch (IOException e) {
+            log.warn("Orphan sweep could not list {}", this.fileStorageLocation, e);
+            return;
+        }
+
+        int deleted = 0;
+        List<String> names = new ArrayList<>(candidates.keySet());
+        for (int from = 0; from < names.size(); from += SWEEP_CHUNK) {
+            List<String> chunk = names.subList(from, Math.min(from + SWEEP_CHUNK, names.size()));
+            Set<String> referenced = new HashSet<>(storedFileRefRepository.findReferencedFileNames(chunk));
+            for (String fileName : chunk) {
+                if (!referenced.contains(fileName) && deleteIfUnreferenced(fileName, candidates.get(fileName))) {
+                    deleted++;
+                }
+            }
+        }
+
+        try (Stream<Path> temps = Files.list(this.tempLocation)) {
+            temps.filter(path -> olderThan(path, cutoff)).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Orphan sweep could not list {}", this.tempLocation, e);
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} stored files that no application refers to.", deleted);
+        }
+    }
+
+    private boolean deleteIfUnreferenced(String fileName, Path path) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            String sha256 = fileName.substring(0, 64);
+            long size;
+            try {
+                size = Files.size(path);
+            } catch (IOException e) {
+                return false;
             }
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException("File not found " + fileName, ex);
+            storedFileRefRepository.lockReference(fileName, sha256, size, LocalDateTime.now());
+            StoredFileRef ref = storedFileRefRepository.findByFileName(fileName).orElseThrow();
+            // Files from before reference counting have applications but no references
+            if (ref.getRefCount() > 0 || applicationRepository.existsByResumeUrl(fileName)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            // Deleted while the lock is held, not after commit: a store() waiting on the lock then finds the
+            // file gone and moves its own copy into place
+            deleteQuietly(path);
+            storedFileRefRepository.delete(ref);
+            resumeTextCache.evict(sha256);
+            return true;
+        }));
+    }
+
+    private boolean olderThan(Path path, long cutoffMillis) {
+        try {
+            return Files.isRegularFile(path) && Files.getLastModifiedTime(path).toMillis() < cutoffMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Leftover temp files are harmless; they never match a stored name
         }
     }
 }
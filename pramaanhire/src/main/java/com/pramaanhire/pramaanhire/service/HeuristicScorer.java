@@ -0,0 +1,65 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.JobPromptContext;
+import com.pramaanhire.pramaanhire.entity.ApplicationAnswer;
+import com.pramaanhire.pramaanhire.util.TextTokenizer;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deterministic fallback score (0-100) used while the LLM is unavailable, so HR ranking keeps working.
+ * It is a rough signal only: how much of the job description's vocabulary the resume covers, how fully
+ * the screening questions were answered, and whether the resume looks like a complete CV.
+ */
+@Component
+public class HeuristicScorer {
+
+    private static final double KEYWORD_WEIGHT = 0.6;
+    private static final double ANSWER_WEIGHT = 0.2;
+    private static final double STRUCTURE_WEIGHT = 0.2;
+
+    // An answer shorter than this is counted as half an answer
+    private static final int SUBSTANTIAL_ANSWER_LENGTH = 30;
+    // Resumes shorter than this many terms are probably incomplete or badly extracted
+    private static final int MIN_RESUME_TERMS = 150;
+
+    private static final Set<String> CORE_SECTIONS = Set.of("experience", "education", "skills", "projects");
+
+    public BigDecimal score(JobPromptContext job, List<ApplicationAnswer> answers, String resumeText) {
+        Map<String, Integer> resumeTerms = TextTokenizer.termFrequencies(resumeText);
+        Set<String> jobTerms = TextTokenizer.termFrequencies(job.getDescription()).keySet();
+
+        double keywordCoverage = jobTerms.isEmpty() ? 0 : jobTerms.stream()
+                .filter(resumeTerms::containsKey)
+                .count() / (double) jobTerms.size();
+
+        double answerCompleteness = 1.0;
+        if (!job.getQuestions().isEmpty()) {
+            double answered = 0;
+            for (ApplicationAnswer ans : answers) {
+                String text = ans.getAnswerText() == null ? "" : ans.getAnswerText().trim();
+                if (!text.isEmpty()) {
+                    answered += text.length() >= SUBSTANTIAL_ANSWER_LENGTH ? 1.0 : 0.5;
+                }
+            }
+            answerCompleteness = Math.min(1.0, answered / job.getQuestions().size());
+        }
+
+        int termCount = resumeTerms.values().stream().mapToInt(Integer::intValue).sum();
+        double lengthSignal = Math.min(1.0, termCount / (double) MIN_RESUME_TERMS);
+        String lowerResume = resumeText == null ? "" : resumeText.toLowerCase(Locale.ROOT);
+        long sections = CORE_SECTIONS.stream().filter(lowerResume::contains).count();
+        double structure = (lengthSignal + sections / (double) CORE_SECTIONS.size()) / 2;
+
+        double score = 100 * (KEYWORD_WEIGHT * keywordCoverage
+                + ANSWER_WEIGHT * answerCompleteness
+                + STRUCTURE_WEIGHT * structure);
+        return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+    }
+}
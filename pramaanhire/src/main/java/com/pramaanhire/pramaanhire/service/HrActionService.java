@@ -6,9 +6,13 @@ import com.pramaanhire.pramaanhire.dto.HrApplicationSummaryDto;
 import com.pramaanhire.pramaanhire.dto.RejectionEmailDto;
 import com.pramaanhire.pramaanhire.dto.UpdateStatusRequest;
 import com.pramaanhire.pramaanhire.entity.AiEvaluation;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
 import com.pramaanhire.pramaanhire.entity.Application;
 import com.pramaanhire.pramaanhire.entity.Job;
 import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationModelResultRepository;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationTaskRepository;
 import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
 import com.pramaanhire.pramaanhire.repository.JobRepository;
 import jakarta.persistence.criteria.Predicate;
@@ -21,10 +25,14 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +43,10 @@ public class HrActionService {
     private final JobRepository jobRepository;
     private final ApplicationRepository applicationRepository;
     private final EmailService emailService;
+    private final AiEvaluationTaskRepository aiEvaluationTaskRepository;
+    private final AiEvaluationModelResultRepository aiEvaluationModelResultRepository;
+    private final EvaluationTaskService evaluationTaskService;
+    private final AiRetryScheduler aiRetryScheduler;
 
     @Value("${file.base-url}")
     private String fileBaseUrl;
@@ -74,7 +86,14 @@ public class HrActionService {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
 
-        return applicationRepository.findAll(spec, pageable)
+        Page<Application> applications = applicationRepository.findAll(spec, pageable);
+
+        // One query for the evaluation state of the whole page
+        Map<Long, EvaluationTaskStatus> taskStatuses = aiEvaluationTaskRepository
+                .findByApplicationIdIn(applications.map(Application::getId).getContent()).stream()
+                .collect(Collectors.toMap(task -> task.getApplication().getId(), AiEvaluationTask::getStatus));
+
+        return applications
                 .map(app -> HrApplicationSummaryDto.builder()
                         .applicationId(app.getId())
                         .candidateName(app.getCandidate().getFullName())
@@ -82,7 +101,10 @@ public class HrActionService {
                         .submittedAt(app.getSubmittedAt())
                         .status(app.getStatus())
                         .aiScore(app.getAiScore())
+                        .prescreenScore(app.getPrescreenScore())
+                        .heuristicScore(app.getHeuristicScore())
                         .aiSummary(app.getAiSummary())
+                        .aiEvaluationStatus(taskStatuses.get(app.getId()))
                         .build());
     }
 
@@ -98,15 +120,33 @@ public class HrActionService {
 
         HrApplicationDetailDto.AiEvaluationDto aiEvalDto = null;
         if (application.getAiEvaluation() != null) {
+            AiEvaluation evaluation = application.getAiEvaluation();
+            List<HrApplicationDetailDto.ModelResultDto> modelResults = null;
+            if (evaluation.getEnsembleSize() != null) {
+                modelResults = aiEvaluationModelResultRepository.findByEvaluationIdOrderByModel(evaluation.getId()).stream()
+                        .map(r -> HrApplicationDetailDto.ModelResultDto.builder()
+                                .model(r.getModel())
+                                .outcome(r.getOutcome())
+                                .score(r.getScore())
+                                .confidenceScore(r.getConfidenceScore())
+                                .summary(r.getSummary())
+                                .latencyMs(r.getLatencyMs())
+                                .build())
+                        .collect(Collectors.toList());
+            }
             aiEvalDto = HrApplicationDetailDto.AiEvaluationDto.builder()
-                    .strengths(application.getAiEvaluation().getStrengths())
-                    .weaknesses(application.getAiEvaluation().getWeaknesses())
-                    .improvementTips(application.getAiEvaluation().getImprovementTips())
-                    .confidenceScore(application.getAiEvaluation().getConfidenceScore())
-                    .modelUsed(application.getAiEvaluation().getModelUsed())
+                    .strengths(evaluation.getStrengths())
+                    .weaknesses(evaluation.getWeaknesses())
+                    .improvementTips(evaluation.getImprovementTips())
+                    .confidenceScore(evaluation.getConfidenceScore())
+                    .modelUsed(evaluation.getModelUsed())
+                    .scoreDisagreement(evaluation.getScoreDisagreement())
+                    .modelResults(modelResults)
                     .build();
         }
 
+        AiEvaluationTask task = aiEvaluationTaskRepository.findByApplicationId(applicationId).orElse(null);
+
         return HrApplicationDetailDto.builder()
                 .applicationId(application.getId())
                 .jobId(application.getJob().getId())
@@ -119,8 +159,12 @@ public class HrActionService {
                 .submittedAt(application.getSubmittedAt())
                 .hrNotes(application.getHrNotes())
                 .aiScore(application.getAiScore())
+                .heuristicScore(application.getHeuristicScore())
                 .aiSummary(application.getAiSummary())
                 .aiEvaluation(aiEvalDto)
+                .aiEvaluationStatus(task != null ? task.getStatus() : null)
+                .aiEvaluationAttempts(task != null ? task.getAttempts() : null)
+                .aiEvaluationError(task != null ? task.getLastError() : null)
                 .answers(application.getAnswers().stream()
                         .map(ans -> HrApplicationDetailDto.AnswerDetailDto.builder()
                                 .questionText(ans.getQuestion().getQuestionText())
@@ -167,6 +211,38 @@ public class HrActionService {
         triggerStatusEmail(application, newStatus);
     }
 
+    @Transactional
+    public void retryAiEvaluation(Long applicationId, Long hrId) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found"));
+
+        if (!application.getJob().getHr().getId().equals(hrId)) {
+            throw new AccessDeniedException("You are not authorized to manage this application");
+        }
+
+        evaluationTaskService.requeue(applicationId);
+    }
+
+    @Transactional
+    public void evaluateNow(Long applicationId, Long hrId) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found"));
+
+        if (!application.getJob().getHr().getId().equals(hrId)) {
+            throw new AccessDeniedException("You are not authorized to manage this application");
+        }
+
+        evaluationTaskService.expedite(applicationId);
+
+        // Poll right away instead of waiting for the next scheduled run
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aiRetryScheduler.retryFailedEvaluations();
+            }
+        });
+    }
+
     @Transactional
     public void shortlistTopCandidates(Long jobId, int topN, Long hrId) {
         Job job = jobRepository.findById(jobId)
@@ -179,7 +255,7 @@ public class HrActionService {
         // Fetch all applications that are eligible (SUBMITTED or UNDER_REVIEW)
         List<Application> eligibleApps = applicationRepository.findByJobId(jobId, Pageable.unpaged()).getContent().stream()
                 .filter(app -> app.getStatus() == ApplicationStatus.SUBMITTED || app.getStatus() == ApplicationStatus.UNDER_REVIEW)
-                .sorted(Comparator.comparing(Application::getAiScore, Comparator.nullsLast(Comparator.reverseOrder())))
+                .sorted(Comparator.comparing(this::rankingScore, Comparator.nullsLast(Comparator.reverseOrder())))
                 .collect(Collectors.toList());
 
         if (eligibleApps.isEmpty()) {
@@ -213,6 +289,11 @@ public class HrActionService {
         log.info("Bulk action complete: Top {} moved to UNDER_REVIEW, {} rejected.", Math.min(topN, eligibleApps.size()), Math.max(0, eligibleApps.size() - topN));
     }
 
+    // Applications scored while the LLM was down rank by their heuristic score until the AI evaluation lands
+    private BigDecimal rankingScore(Application application) {
+        return application.getAiScore() != null ? application.getAiScore() : application.getHeuristicScore();
+    }
+
     private void triggerStatusEmail(Application application, ApplicationStatus newStatus) {
         String candidateEmail = application.getCandidate().getEmail();
         String candidateName = application.getCandidate().getFullName();
@@ -0,0 +1,132 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.JobPromptContext;
+import com.pramaanhire.pramaanhire.entity.Job;
+import com.pramaanhire.pramaanhire.entity.JobQuestion;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.repository.JobRepository;
+import com.pramaanhire.pramaanhire.util.HashUtil;
+import com.pramaanhire.pramaanhire.util.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory cache of {@link JobPromptContext} per job, bounded to the most recently used jobs. Entries are
+ * built on first use and checked against the job's {@code updatedAt} before each use, so an update made
+ * through another instance is seen as soon as it commits. {@link JobService} also drops the local entry
+ * right after an update.
+ */
+@Component
+@Slf4j
+public class JobPromptContextCache {
+
+    private final JobRepository jobRepository;
+    private final EvaluationPromptBuilder promptBuilder;
+    private final ResumeCompactor resumeCompactor;
+    private final Map<Long, Entry> contexts;
+    private final Counter hits;
+    private final Counter misses;
+
+    // The context as built from the job row last updated at updatedAt
+    private record Entry(JobPromptContext context, LocalDateTime updatedAt) {
+    }
+
+    public JobPromptContextCache(JobRepository jobRepository,
+                                 EvaluationPromptBuilder promptBuilder,
+                                 ResumeCompactor resumeCompactor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ai.evaluation.job-context.max-entries:1000}") int maxEntries) {
+        this.jobRepository = jobRepository;
+        this.promptBuilder = promptBuilder;
+        this.resumeCompactor = resumeCompactor;
+        // Access-ordered, so the least recently evaluated job is dropped first
+        this.contexts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("ai.evaluation.job-context.hits").register(meterRegistry);
+        this.misses = Counter.builder("ai.evaluation.job-context.misses").register(meterRegistry);
+        Gauge.builder("ai.evaluation.job-context.size", this, JobPromptContextCache::size).register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public JobPromptContext get(Long jobId) {
+        // One indexed column read instead of the job, its questions and a fresh render
+        LocalDateTime updatedAt = jobRepository.findUpdatedAtById(jobId)
+                .orElseThrow(() -> new PermanentEvaluationException("Job not found"));
+        Entry cached = lookup(jobId);
+        if (cached != null && cached.updatedAt().equals(updatedAt)) {
+            hits.increment();
+            return cached.context();
+        }
+
+        misses.increment();
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new PermanentEvaluationException("Job not found"));
+        JobPromptContext context = build(job);
+        // Keyed by the row actually read; if an update slipped in between, the next get rebuilds
+        store(jobId, new Entry(context, job.getUpdatedAt()));
+        return context;
+    }
+
+    public synchronized void invalidate(Long jobId) {
+        if (contexts.remove(jobId) != null) {
+            log.info("Dropped cached prompt context for job ID: {}", jobId);
+        }
+    }
+
+    private synchronized Entry lookup(Long jobId) {
+        return contexts.get(jobId);
+    }
+
+    private synchronized void store(Long jobId, Entry entry) {
+        contexts.put(jobId, entry);
+    }
+
+    private synchronized int size() {
+        return contexts.size();
+    }
+
+    private JobPromptContext build(Job job) {
+        String description = resumeCompactor.normalize(job.getDescription());
+
+        Map<Long, String> questions = new LinkedHashMap<>();
+        job.getQuestions().stream()
+                .sorted(Comparator.comparingInt(JobQuestion::getDisplayOrder))
+                .forEach(q -> questions.put(q.getId(), q.getQuestionText()));
+
+        List<String> hashParts = new ArrayList<>();
+        hashParts.add(job.getTitle());
+        hashParts.add(job.getDescription());
+        questions.forEach((id, text) -> {
+            hashParts.add(String.valueOf(id));
+            hashParts.add(text);
+        });
+
+        String header = promptBuilder.renderJobHeader(job.getTitle(), description);
+        return JobPromptContext.builder()
+                .jobId(job.getId())
+                .title(job.getTitle())
+                .description(description)
+                .header(header)
+                .headerTokens(TokenEstimator.estimate(header))
+                .questions(questions)
+                .contentHash(HashUtil.sha256Hex(hashParts.toArray(new String[0])))
+                .ensembleEnabled(job.isEnsembleEnabled())
+                .build();
+    }
+}
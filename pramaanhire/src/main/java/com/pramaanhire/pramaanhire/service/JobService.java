@@ -15,6 +15,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -29,6 +31,7 @@ public class JobService {
     private final JobRepository jobRepository;
     private final UserRepository userRepository;
     private final ApplicationRepository applicationRepository;
+    private final JobPromptContextCache jobPromptContextCache;
 
     @Transactional
     public JobResponse createJob(JobRequest request, Long hrId) {
@@ -53,6 +56,8 @@ public class JobService {
                 .employmentType(request.getEmploymentType())
                 .status(request.getStatus())
                 .applicationDeadline(request.getApplicationDeadline())
+                .prescreenThreshold(request.getPrescreenThreshold())
+                .ensembleEnabled(Boolean.TRUE.equals(request.getEnsembleEnabled()))
                 .isActive(true)
                 .questions(new ArrayList<>())
                 .build();
@@ -150,9 +155,26 @@ public class JobService {
             }
         }
         job.setApplicationDeadline(request.getApplicationDeadline());
+        // Forms that predate these settings do not send them; absence must not reset what HR configured
+        if (request.getPrescreenThreshold() != null) {
+            job.setPrescreenThreshold(request.getPrescreenThreshold());
+        }
+        if (request.getEnsembleEnabled() != null) {
+            job.setEnsembleEnabled(request.getEnsembleEnabled());
+        }
 
+        // Replacing only the questions leaves the job row clean; the cached prompt context is keyed by updatedAt
+        job.setUpdatedAt(LocalDateTime.now());
         jobRepository.save(job);
 
+        // Evaluations must not see the new title/description before it is committed, nor the old one after
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jobPromptContextCache.invalidate(jobId);
+            }
+        });
+
         return JobResponse.builder()
                 .jobId(job.getId())
                 .message("Job updated successfully")
@@ -184,7 +206,11 @@ public class JobService {
             throw new AccessDeniedException("You are not authorized to view this job");
         }
 
-        return mapToJobDetailDto(job);
+        // Screening settings are for the owner only; the edit form sends them back unchanged
+        JobDetailDto details = mapToJobDetailDto(job);
+        details.setPrescreenThreshold(job.getPrescreenThreshold());
+        details.setEnsembleEnabled(job.isEnsembleEnabled());
+        return details;
     }
 
     @Transactional(readOnly = true)
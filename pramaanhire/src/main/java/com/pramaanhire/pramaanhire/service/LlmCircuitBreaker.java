@@ -0,0 +1,115 @@
+package com.pramaanhire.pramaanhire.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consecutive-failure circuit breaker for the LLM endpoint. After {@code failure-threshold} failures in a
+ * row the circuit opens and calls are refused for {@code open-seconds}; then a single probe call is let
+ * through, which either closes the circuit or opens it again.
+ */
+@Component
+@Slf4j
+public class LlmCircuitBreaker {
+
+    private enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long openSeconds;
+    private final Counter opened;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private LocalDateTime openedAt;
+    private boolean probeInFlight;
+
+    public LlmCircuitBreaker(MeterRegistry meterRegistry,
+                             @Value("${ai.llm.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                             @Value("${ai.llm.circuit-breaker.open-seconds:60}") long openSeconds) {
+        this.failureThreshold = failureThreshold;
+        this.openSeconds = openSeconds;
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+        this.opened = Counter.builder("ai.llm.circuit.opened").register(meterRegistry);
+        // 0 = closed, 1 = half-open, 2 = open
+        Gauge.builder("ai.llm.circuit.state", this, breaker -> breaker.currentState().ordinal())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns {@code true} if a call may go out now. In the half-open state only one caller gets through.
+     */
+    public synchronized boolean tryAcquire() {
+        refresh();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Like {@link #tryAcquire()} but without claiming the probe; used to decide whether polling is worthwhile.
+     */
+    public synchronized boolean isCallPermitted() {
+        refresh();
+        return state == State.CLOSED || (state == State.HALF_OPEN && !probeInFlight);
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("LLM endpoint is responding again, closing circuit breaker");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            openedAt = LocalDateTime.now();
+            probeInFlight = false;
+            opened.increment();
+            log.warn("LLM endpoint failed {} times in a row, opening circuit breaker for {}s", consecutiveFailures, openSeconds);
+        }
+    }
+
+    // The call ended without telling us anything about endpoint health (e.g. throttled)
+    public synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    /**
+     * Earliest time at which a call will be let through again.
+     */
+    public synchronized LocalDateTime retryAt() {
+        refresh();
+        return state == State.OPEN ? openedAt.plusSeconds(openSeconds) : LocalDateTime.now();
+    }
+
+    private synchronized State currentState() {
+        refresh();
+        return state;
+    }
+
+    private void refresh() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pramaanhire.pramaanhire.config.AsyncConfig;
+import com.pramaanhire.pramaanhire.config.LlmConfig;
+import com.pramaanhire.pramaanhire.exception.LlmUnavailableException;
+import com.pramaanhire.pramaanhire.exception.LocalThrottleException;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.util.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import reactor.core.Scannable;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for evaluation calls to the LLM. Handles rate limiting, streaming and, when a
+ * secondary provider is configured, hedging: if the primary has not answered within its recent p95
+ * latency, the same prompt goes to the secondary and whichever first returns an answer the caller can use
+ * wins.
+ * Calls are refused outright while the circuit breaker is open.
+ */
+@Component
+@Slf4j
+public class LlmGateway {
+
+    // Below this many samples the percentile is meaningless, so the maximum delay is used
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final int LATENCY_WINDOW_SIZE = 200;
+
+    public record Completion(JsonNode json, String model) {
+    }
+
+    private record Attempt(Completion completion, boolean secondary) {
+    }
+
+    private final ChatClient chatClient;
+    private final ChatClient secondaryChatClient;
+    private final LlmRateLimiter llmRateLimiter;
+    private final LlmCircuitBreaker circuitBreaker;
+    private final EvaluationResponseParser responseParser;
+    private final ThreadPoolTaskExecutor hedgeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int completionTokenAllowance;
+    private final boolean streamingEnabled;
+    private final Duration totalTimeout;
+    private final String secondaryModel;
+    private final double hedgePercentile;
+    private final long minHedgeDelayMs;
+    private final long maxHedgeDelayMs;
+
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final Counter calls;
+    private final Counter hedges;
+    private final Counter primaryWins;
+    private final Counter secondaryWins;
+
+    public LlmGateway(ChatClient chatClient,
+                      @Qualifier(LlmConfig.SECONDARY_CHAT_CLIENT) ObjectProvider<ChatClient> secondaryChatClient,
+                      LlmRateLimiter llmRateLimiter,
+                      LlmCircuitBreaker circuitBreaker,
+                      EvaluationResponseParser responseParser,
+                      @Qualifier(AsyncConfig.LLM_HEDGE_EXECUTOR) ThreadPoolTaskExecutor hedgeExecutor,
+                      MeterRegistry meterRegistry,
+                      @Value("${ai.llm.rate-limit.completion-token-allowance:600}") int completionTokenAllowance,
+                      @Value("${ai.evaluation.streaming.enabled:true}") boolean streamingEnabled,
+                      @Value("${ai.llm.http.total-timeout-seconds:120}") long totalTimeoutSeconds,
+                      @Value("${ai.llm.hedge.model:}") String secondaryModel,
+                      @Value("${ai.llm.hedge.percentile:0.95}") double hedgePercentile,
+                      @Value("${ai.llm.hedge.min-delay-ms:2000}") long minHedgeDelayMs,
+                      @Value("${ai.llm.hedge.max-delay-ms:30000}") long maxHedgeDelayMs) {
+        this.chatClient = chatClient;
+        this.secondaryChatClient = secondaryChatClient.getIfAvailable();
+        this.llmRateLimiter = llmRateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.responseParser = responseParser;
+        this.hedgeExecutor = hedgeExecutor;
+        this.meterRegistry = meterRegistry;
+        this.completionTokenAllowance = completionTokenAllowance;
+        this.streamingEnabled = streamingEnabled;
+        this.totalTimeout = Duration.ofSeconds(totalTimeoutSeconds);
+        this.secondaryModel = secondaryModel;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelayMs = minHedgeDelayMs;
+        this.maxHedgeDelayMs = maxHedgeDelayMs;
+
+        this.calls = Counter.builder("ai.llm.calls").register(meterRegistry);
+        this.hedges = Counter.builder("ai.llm.hedge.requests")
+                .description("Calls that were duplicated to the secondary provider")
+                .register(meterRegistry);
+        this.primaryWins = Counter.builder("ai.llm.hedge.wins").tag("endpoint", "primary").register(meterRegistry);
+        this.secondaryWins = Counter.builder("ai.llm.hedge.wins").tag("endpoint", "secondary").register(meterRegistry);
+    }
+
+    /**
+     * Sends {@code promptText} to {@code model} and returns the parsed JSON together with the model that
+     * actually produced it (the secondary's model if a hedge won). {@code usable} is the caller's own check
+     * of the JSON; a hedged answer failing it does not win the race, and is only returned when no answer
+     * passes.
+     */
+    public Completion complete(String promptText, int candidates, String model, Predicate<JsonNode> usable) {
+        return guarded(() -> secondaryChatClient == null
+                ? new Completion(callPrimary(promptText, candidates, model, Sinks.one(), () -> { }), model)
+                : hedged(promptText, candidates, model, usable), () -> false);
+    }
+
+    /**
+     * Sends a single-candidate prompt to exactly {@code model}, without hedging. Emitting on {@code cancel}
+     * aborts a streaming call; the caller then gets an exception instead of a result.
+     */
+    public Completion complete(String promptText, String model, Sinks.One<Boolean> cancel) {
+        return guarded(() -> new Completion(callPrimary(promptText, 1, model, cancel, () -> { }), model),
+                () -> isCancelled(cancel));
+    }
+
+    private Completion guarded(Supplier<Completion> call, BooleanSupplier cancelled) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new LlmUnavailableException("LLM circuit breaker is open");
+        }
+        calls.increment();
+        try {
+            Completion completion = call.get();
+            circuitBreaker.onSuccess();
+            return completion;
+        } catch (PermanentEvaluationException e) {
+            // The endpoint answered, just not usefully; that says nothing bad about its availability
+            circuitBreaker.onSuccess();
+            throw e;
+        } catch (RuntimeException e) {
+            // Neither does a 429, a call we aborted ourselves, or one that never got a local permit
+            if (LlmRateLimiter.isRateLimitError(e) || e instanceof LocalThrottleException || cancelled.getAsBoolean()) {
+                circuitBreaker.onIgnored();
+            } else {
+                circuitBreaker.onFailure();
+            }
+            throw e;
+        }
+    }
+
+    private Completion hedged(String promptText, int candidates, String model, Predicate<JsonNode> usable) {
+        long delayMs = hedgeDelayMs(model);
+        Sinks.One<Boolean> cancelPrimary = Sinks.one();
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        CompletableFuture<Attempt> primary = CompletableFuture.supplyAsync(
+                () -> new Attempt(new Completion(
+                        callPrimary(promptText, candidates, model, cancelPrimary, () -> sent.complete(null)), model), false),
+                hedgeExecutor);
+
+        try {
+            // The delay is compared with the primary's response time, so time spent queued for a
+            // rate-limit permit must not count towards it
+            CompletableFuture.anyOf(sent, primary).get();
+            long started = System.nanoTime();
+            try {
+                Attempt attempt = primary.get(delayMs, TimeUnit.MILLISECONDS);
+                if (usable.test(attempt.completion().json())) {
+                    return attempt.completion();
+                }
+                log.info("Primary LLM answer was not usable, hedging to secondary provider");
+            } catch (TimeoutException e) {
+                // Slower than usual; fall through and hedge
+                log.info("Primary LLM has not answered within {} ms, hedging to secondary provider", delayMs);
+            }
+            return race(promptText, model, usable, primary, cancelPrimary, started, delayMs);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the LLM", e);
+        }
+    }
+
+    private Completion race(String promptText, String model, Predicate<JsonNode> usable,
+                            CompletableFuture<Attempt> primary, Sinks.One<Boolean> cancelPrimary,
+                            long started, long delayMs) {
+        hedges.increment();
+        Sinks.One<Boolean> cancelSecondary = Sinks.one();
+        CompletableFuture<Attempt> secondary = CompletableFuture.supplyAsync(
+                () -> new Attempt(new Completion(callSecondary(promptText, cancelSecondary), secondaryModel), true),
+                hedgeExecutor);
+
+        Attempt winner;
+        try {
+            winner = firstUsable(List.of(primary, secondary), usable)
+                    .get(totalTimeout.toMillis() + delayMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            cancelPrimary.tryEmitValue(true);
+            cancelSecondary.tryEmitValue(true);
+            throw new RuntimeException("Neither LLM provider answered in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the LLM", e);
+        }
+
+        // Stop paying for the slower stream
+        if (winner.secondary()) {
+            secondaryWins.increment();
+            cancelPrimary.tryEmitValue(true);
+            // The primary took at least this long; without the sample the p95 would only see fast calls
+            if (!primary.isDone()) {
+                latencyWindow(model).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+        } else {
+            primaryWins.increment();
+            cancelSecondary.tryEmitValue(true);
+        }
+        return winner.completion();
+    }
+
+    private JsonNode callPrimary(String promptText, int candidates, String model, Sinks.One<Boolean> cancel,
+                                 Runnable onSent) {
+        int estimatedTokens = TokenEstimator.estimate(promptText) + completionTokenAllowance * candidates;
+        OpenAiChatOptions options = OpenAiChatOptions.builder().withModel(model).build();
+        Timer latency = meterRegistry.timer("ai.evaluation.model.latency", "model", model);
+
+        // A cancelled call gives up its place in the permit queue and is never sent
+        return llmRateLimiter.execute(estimatedTokens, () -> isCancelled(cancel), () -> {
+            if (isCancelled(cancel)) {
+                throw new CancellationException("LLM call cancelled before it was sent");
+            }
+            onSent.run();
+            long started = System.nanoTime();
+            JsonNode json = latency.record(() -> invoke(chatClient, options, promptText, cancel));
+            latencyWindow(model).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return json;
+        });
+    }
+
+    // The secondary provider has its own quota, so it bypasses the primary's rate limiter
+    private JsonNode callSecondary(String promptText, Sinks.One<Boolean> cancel) {
+        OpenAiChatOptions options = OpenAiChatOptions.builder().withModel(secondaryModel).build();
+        return meterRegistry.timer("ai.evaluation.model.latency", "model", secondaryModel)
+                .record(() -> invoke(secondaryChatClient, options, promptText, cancel));
+    }
+
+    private JsonNode invoke(ChatClient chatClient, OpenAiChatOptions options, String promptText, Sinks.One<Boolean> cancel) {
+        if (!streamingEnabled) {
+            // A blocking call cannot be cancelled once sent; a losing hedge simply runs to completion and is
+            // discarded. The rate limiter and callPrimary still refuse to send one that was cancelled earlier
+            return responseParser.readTree(chatClient.prompt()
+                    .options(options)
+                    .user(promptText)
+                    .call()
+                    .content());
+        }
+
+        StreamingJsonAssembler assembler = responseParser.newAssembler();
+        try {
+            chatClient.prompt()
+                    .options(options)
+                    .user(promptText)
+                    .stream()
+                    .content()
+                    .takeUntilOther(cancel.asMono())
+                    // Completing (or failing) the predicate cancels the upstream request, so we stop
+                    // paying for tokens once the JSON is closed or is clearly garbage
+                    .takeUntil(assembler::feed)
+                    .blockLast(totalTimeout);
+        } catch (PermanentEvaluationException e) {
+            meterRegistry.counter("ai.evaluation.stream.aborted").increment();
+            throw e;
+        }
+        return assembler.result();
+    }
+
+    private static boolean isCancelled(Sinks.One<Boolean> cancel) {
+        return Boolean.TRUE.equals(cancel.scan(Scannable.Attr.TERMINATED));
+    }
+
+    /**
+     * Completes with the first attempt whose JSON passes {@code usable}. If none does, an attempt that at
+     * least parsed is returned so the caller can salvage what it can; only when every attempt failed does
+     * the future fail.
+     */
+    private CompletableFuture<Attempt> firstUsable(List<CompletableFuture<Attempt>> attempts, Predicate<JsonNode> usable) {
+        CompletableFuture<Attempt> winner = new CompletableFuture<>();
+        AtomicInteger settled = new AtomicInteger();
+        AtomicReference<Attempt> parsed = new AtomicReference<>();
+        for (CompletableFuture<Attempt> attempt : attempts) {
+            attempt.whenComplete((result, error) -> {
+                if (error == null && usable.test(result.completion().json())) {
+                    winner.complete(result);
+                    return;
+                }
+                if (error == null) {
+                    parsed.compareAndSet(null, result);
+                }
+                if (settled.incrementAndGet() == attempts.size()) {
+                    if (parsed.get() != null) {
+                        winner.complete(parsed.get());
+                    } else {
+                        winner.completeExceptionally(error);
+                    }
+                }
+            });
+        }
+        return winner;
+    }
+
+    private long hedgeDelayMs(String model) {
+        long percentile = latencyWindow(model).percentile(hedgePercentile, MIN_LATENCY_SAMPLES);
+        return percentile < 0 ? maxHedgeDelayMs : Math.max(minHedgeDelayMs, Math.min(maxHedgeDelayMs, percentile));
+    }
+
+    private LatencyWindow latencyWindow(String model) {
+        return latencies.computeIfAbsent(model, m -> new LatencyWindow(LATENCY_WINDOW_SIZE));
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+    }
+
+    /**
+     * Ring buffer of the most recent call latencies for one model.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        synchronized long percentile(double percentile, int minSamples) {
+            if (size < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+}
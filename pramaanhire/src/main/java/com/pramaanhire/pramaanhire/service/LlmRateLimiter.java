@@ -0,0 +1,244 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.exception.LocalThrottleException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Client-side guard for the Groq/OpenAI chat endpoint. Two token buckets keep us under the provider's
+ * requests-per-minute and tokens-per-minute quotas, and an AIMD controller adjusts how many calls may be
+ * in flight: it halves the limit on a 429 or a latency spike and creeps back up while calls are healthy.
+ */
+@Component
+@Slf4j
+public class LlmRateLimiter {
+
+    private static final long CANCEL_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private final double minConcurrency;
+    private final double maxConcurrency;
+    private final long latencyThresholdNanos;
+    private final long maxWaitNanos;
+
+    private double concurrencyLimit;
+    private int inFlight;
+
+    private final Counter localThrottles;
+    private final Counter serverThrottles;
+    private final Timer permitWait;
+
+    public LlmRateLimiter(MeterRegistry meterRegistry,
+                          @Value("${ai.llm.rate-limit.requests-per-minute:30}") int requestsPerMinute,
+                          @Value("${ai.llm.rate-limit.tokens-per-minute:12000}") int tokensPerMinute,
+                          @Value("${ai.llm.rate-limit.max-wait-ms:120000}") long maxWaitMs,
+                          @Value("${ai.llm.concurrency.initial:2}") int initialConcurrency,
+                          @Value("${ai.llm.concurrency.min:1}") int minConcurrency,
+                          @Value("${ai.llm.concurrency.max:8}") int maxConcurrency,
+                          @Value("${ai.llm.concurrency.latency-threshold-ms:15000}") long latencyThresholdMs) {
+        this.requestBucket = new TokenBucket(requestsPerMinute);
+        this.tokenBucket = new TokenBucket(tokensPerMinute);
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.concurrencyLimit = initialConcurrency;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        Gauge.builder("ai.llm.concurrency.limit", this, LlmRateLimiter::getConcurrencyLimit)
+                .description("Current AIMD limit on concurrent LLM calls")
+                .register(meterRegistry);
+        Gauge.builder("ai.llm.concurrency.in-flight", this, LlmRateLimiter::getInFlight)
+                .register(meterRegistry);
+        this.localThrottles = Counter.builder("ai.llm.throttled")
+                .tag("source", "client")
+                .description("Calls that had to wait for a rate-limit or concurrency permit")
+                .register(meterRegistry);
+        this.serverThrottles = Counter.builder("ai.llm.throttled")
+                .tag("source", "server")
+                .description("Calls rejected by the provider with HTTP 429")
+                .register(meterRegistry);
+        this.permitWait = Timer.builder("ai.llm.permit.wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} once a permit is available, charging {@code estimatedTokens} against the TPM budget.
+     */
+    public <T> T execute(int estimatedTokens, Supplier<T> call) {
+        return execute(estimatedTokens, () -> false, call);
+    }
+
+    /**
+     * As {@link #execute(int, Supplier)}, but stops waiting for a permit as soon as {@code cancelled} turns
+     * true and throws {@link CancellationException}, so an abandoned call never takes a slot or quota.
+     */
+    public <T> T execute(int estimatedTokens, BooleanSupplier cancelled, Supplier<T> call) {
+        acquire(estimatedTokens, cancelled);
+        long started = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(System.nanoTime() - started);
+            return result;
+        } catch (RuntimeException e) {
+            if (isRateLimitError(e)) {
+                onThrottled();
+            } else {
+                onFailure();
+            }
+            throw e;
+        }
+    }
+
+    public static boolean isRateLimitError(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof HttpClientErrorException.TooManyRequests) {
+                return true;
+            }
+            // Spring AI wraps provider errors in its own exceptions and keeps the status only in the message
+            String message = t.getMessage();
+            if (message != null && (message.startsWith("429") || message.contains("Too Many Requests"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void acquire(int estimatedTokens, BooleanSupplier cancelled) {
+        long started = System.nanoTime();
+        long deadline = started + maxWaitNanos;
+        boolean waited = false;
+
+        try {
+            while (true) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("LLM call cancelled while waiting for a rate-limit permit");
+                }
+                long now = System.nanoTime();
+                long waitNanos;
+
+                if (inFlight >= (int) Math.floor(concurrencyLimit)) {
+                    // Woken by release(); the timeout only guards against a lost notification
+                    waitNanos = TimeUnit.SECONDS.toNanos(1);
+                } else {
+                    waitNanos = Math.max(requestBucket.nanosUntil(1, now), tokenBucket.nanosUntil(estimatedTokens, now));
+                    if (waitNanos == 0) {
+                        requestBucket.take(1, now);
+                        tokenBucket.take(estimatedTokens, now);
+                        inFlight++;
+                        return;
+                    }
+                }
+
+                if (now + waitNanos > deadline) {
+                    throw new LocalThrottleException("Timed out waiting for an LLM rate-limit permit");
+                }
+                waited = true;
+                // Wake up now and then to notice a cancellation; nothing signals it on this monitor
+                TimeUnit.NANOSECONDS.timedWait(this, Math.min(waitNanos, CANCEL_CHECK_NANOS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LocalThrottleException("Interrupted while waiting for an LLM rate-limit permit", e);
+        } finally {
+            if (waited) {
+                localThrottles.increment();
+            }
+            permitWait.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void onSuccess(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease(0.75);
+            log.info("Slow LLM response ({} ms), lowering concurrency limit to {}",
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos), String.format("%.2f", concurrencyLimit));
+        } else {
+            // Additive increase: roughly +1 after a full window of successful calls
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / concurrencyLimit);
+        }
+        release();
+    }
+
+    private synchronized void onThrottled() {
+        serverThrottles.increment();
+        decrease(0.5);
+        // Stop issuing new requests until the bucket has refilled a little
+        requestBucket.drain(System.nanoTime());
+        log.warn("LLM provider returned 429, lowering concurrency limit to {}", String.format("%.2f", concurrencyLimit));
+        release();
+    }
+
+    private synchronized void onFailure() {
+        release();
+    }
+
+    private void decrease(double factor) {
+        concurrencyLimit = Math.max(minConcurrency, concurrencyLimit * factor);
+    }
+
+    private void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    private synchronized double getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    private synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Classic token bucket refilled continuously at {@code perMinute / 60} tokens per second.
+     * Not thread-safe on its own; guarded by the enclosing limiter's monitor.
+     */
+    private static final class TokenBucket {
+
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill;
+
+        TokenBucket(int perMinute) {
+            this.capacity = perMinute;
+            this.refillPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = perMinute;
+            this.lastRefill = System.nanoTime();
+        }
+
+        long nanosUntil(double amount, long now) {
+            refill(now);
+            double needed = Math.min(amount, capacity) - available;
+            return needed <= 0 ? 0 : (long) Math.ceil(needed / refillPerNano);
+        }
+
+        void take(double amount, long now) {
+            refill(now);
+            available -= Math.min(amount, capacity);
+        }
+
+        void drain(long now) {
+            refill(now);
+            available = Math.min(available, 0);
+        }
+
+        private void refill(long now) {
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
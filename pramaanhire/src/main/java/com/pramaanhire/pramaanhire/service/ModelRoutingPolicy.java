@@ -0,0 +1,63 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.AiEvaluationResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ordered chain of models, cheapest first. A result from one tier is accepted unless its score falls in
+ * the uncertainty band or the model itself reports low confidence, in which case the next tier is asked.
+ */
+@Component
+public class ModelRoutingPolicy {
+
+    private final List<String> models;
+    private final BigDecimal bandLow;
+    private final BigDecimal bandHigh;
+    private final BigDecimal minConfidence;
+
+    public ModelRoutingPolicy(@Value("${ai.evaluation.routing.models:${spring.ai.openai.chat.options.model}}") String models,
+                              @Value("${ai.evaluation.routing.uncertainty-band.low:40}") BigDecimal bandLow,
+                              @Value("${ai.evaluation.routing.uncertainty-band.high:70}") BigDecimal bandHigh,
+                              @Value("${ai.evaluation.routing.min-confidence:70}") BigDecimal minConfidence) {
+        this.models = Arrays.stream(models.split(","))
+                .map(String::trim)
+                .filter(model -> !model.isEmpty())
+                .toList();
+        if (this.models.isEmpty()) {
+            throw new IllegalStateException("ai.evaluation.routing.models must name at least one model");
+        }
+        this.bandLow = bandLow;
+        this.bandHigh = bandHigh;
+        this.minConfidence = minConfidence;
+    }
+
+    public String model(int tier) {
+        return models.get(tier);
+    }
+
+    public boolean isLastTier(int tier) {
+        return tier >= models.size() - 1;
+    }
+
+    public boolean needsEscalation(int tier, AiEvaluationResult result) {
+        if (isLastTier(tier)) {
+            return false;
+        }
+        boolean borderline = result.getScore().compareTo(bandLow) >= 0 && result.getScore().compareTo(bandHigh) <= 0;
+        boolean unsure = result.getConfidenceScore().compareTo(minConfidence) < 0;
+        return borderline || unsure;
+    }
+
+    /**
+     * Identifies the routing configuration for evaluation cache keys; changing the chain or the thresholds
+     * can change the final result.
+     */
+    public String cacheKey() {
+        return String.join(",", models) + "|" + bandLow + "-" + bandHigh + "|" + minConfidence;
+    }
+}
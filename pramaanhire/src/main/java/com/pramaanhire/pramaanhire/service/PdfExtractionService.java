@@ -1,47 +1,305 @@
 package com.pramaanhire.pramaanhire.service;
 
+import com.pramaanhire.pramaanhire.config.AsyncConfig;
+import com.pramaanhire.pramaanhire.exception.TransientEvaluationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Extracts resume text on a small dedicated pool instead of the caller's thread. Every document gets a
+ * deadline and a page limit, large files buffer their streams in scratch files rather than on the heap,
+ * and a job is only admitted while the heap it is expected to need is actually available, so one huge or
+ * hostile PDF cannot pin a request thread or push the application out of memory.
+ */
 @Service
 @Slf4j
 public class PdfExtractionService {
 
-    public String extractTextFromPdf(MultipartFile file) {
-        try (InputStream inputStream = file.getInputStream()) {
-            return extractTextFromStream(inputStream);
+    private static final long PARSE_GRACE_MS = 1000;
+
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Path scratchDir;
+    private final int maxPages;
+    private final long timeoutMs;
+    private final long mixedThresholdBytes;
+    private final long maxMainMemoryBytes;
+    private final int heapFactor;
+    private final long heapBudget;
+    private final AtomicLong reservedHeap = new AtomicLong();
+    private final DistributionSummary throughput;
+    private final Counter truncated;
+
+    public PdfExtractionService(@Qualifier(AsyncConfig.PDF_EXTRACTION_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                MeterRegistry meterRegistry,
+                                @Value("${file.upload-dir}") String uploadDir,
+                                @Value("${pdf.extraction.max-pages:50}") int maxPages,
+                                @Value("${pdf.extraction.timeout-seconds:30}") long timeoutSeconds,
+                                @Value("${pdf.extraction.mixed-threshold-bytes:2097152}") long mixedThresholdBytes,
+                                @Value("${pdf.extraction.max-main-memory-bytes:4194304}") long maxMainMemoryBytes,
+                                @Value("${pdf.extraction.heap-factor:8}") int heapFactor,
+                                @Value("${pdf.extraction.heap-fraction:0.25}") double heapFraction) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        // Same scratch directory as uploads, so spilled buffers stay on the storage volume
+        this.scratchDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".tmp");
+        try {
+            Files.createDirectories(this.scratchDir);
         } catch (IOException e) {
-            log.error("Error extracting text from PDF MultipartFile", e);
-            throw new RuntimeException("Failed to extract text from resume", e);
+            throw new RuntimeException("Could not create the PDF scratch directory", e);
         }
+        this.maxPages = maxPages;
+        this.timeoutMs = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        this.mixedThresholdBytes = mixedThresholdBytes;
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.heapFactor = heapFactor;
+        this.heapBudget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+
+        this.throughput = DistributionSummary.builder("pdf.extraction.throughput")
+                .description("File bytes parsed per second of extraction time")
+                .baseUnit("bytes/s")
+                .publishPercentiles(0.05, 0.5)
+                .register(meterRegistry);
+        this.truncated = Counter.builder("pdf.extraction.truncated")
+                .description("Documents longer than the page limit; only the first pages were extracted")
+                .register(meterRegistry);
+        Gauge.builder("pdf.extraction.heap.reserved", reservedHeap, AtomicLong::get)
+                .description("Heap set aside for extractions that are queued or running")
+                .baseUnit("bytes")
+                .register(meterRegistry);
     }
 
-    public String extractTextFromResource(Resource resource) {
-        try (InputStream inputStream = resource.getInputStream()) {
-            return extractTextFromStream(inputStream);
+    /**
+     * Parses a PDF that is already on disk. PDFBox reads it through a random-access file source and only
+     * pulls in the objects it needs, instead of first copying the whole file onto the heap.
+     * <p>
+     * The timeout applies twice: once to waiting for a worker and once to the parse itself. Running out of
+     * either pool, heap or queue time throws {@link TransientEvaluationException}, since the same file will
+     * go through once the load drops; only a document that overruns its own parse time fails for good.
+     */
+    public String extractTextFromFile(Path path) {
+        long size;
+        try {
+            size = Files.size(path);
         } catch (IOException e) {
-            log.error("Error extracting text from PDF Resource", e);
             throw new RuntimeException("Failed to extract text from stored resume", e);
         }
+
+        long reservation = admit(size);
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long queueDeadline = System.nanoTime() + timeoutNanos;
+        // A task cancelled while still queued never runs, so the caller may have to hand the heap back itself
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicLong parseDeadline = new AtomicLong();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                reservedHeap.addAndGet(-reservation);
+            }
+        };
+        Future<String> future;
+        try {
+            future = executor.submit(() -> {
+                long begun = System.nanoTime();
+                parseDeadline.set(begun + timeoutNanos);
+                started.set(true);
+                try {
+                    if (begun - queueDeadline > 0) {
+                        // Spent the whole wait budget in the queue; the caller has already given up
+                        throw new QueueWaitExceededException();
+                    }
+                    return extract(path, size, begun + timeoutNanos);
+                } finally {
+                    release.run();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            release.run();
+            rejected("busy");
+            throw new TransientEvaluationException("Resume processing is busy, please try again shortly", e);
+        }
+
+        try {
+            try {
+                return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (!started.get()) {
+                    future.cancel(true);
+                    if (!started.get()) {
+                        release.run();
+                    }
+                    rejected("queue_timeout");
+                    throw new TransientEvaluationException("Resume processing is busy, please try again shortly", e);
+                }
+            }
+            // Picked up in time, so the document gets its full parse budget; the grace covers the last page
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(parseDeadline.get() - System.nanoTime());
+            return future.get(Math.max(0, remainingMs) + PARSE_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Stuck where the page check cannot see it, typically while PDFBox loads the document
+            future.cancel(true);
+            log.warn("PDF extraction of {} ({} bytes) exceeded {} ms", path.getFileName(), size, timeoutMs);
+            throw new RuntimeException("Timed out extracting text from resume");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof QueueWaitExceededException) {
+                rejected("queue_timeout");
+                throw new TransientEvaluationException("Resume processing is busy, please try again shortly", cause);
+            }
+            if (cause instanceof DeadlineExceededException) {
+                log.warn("PDF extraction of {} ({} bytes) exceeded {} ms", path.getFileName(), size, timeoutMs);
+                throw new RuntimeException("Timed out extracting text from resume");
+            }
+            log.error("Error extracting text from PDF file {}", path, cause);
+            throw new RuntimeException("Failed to extract text from stored resume", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            if (!started.get()) {
+                release.run();
+            }
+            throw new RuntimeException("Interrupted while extracting resume text", e);
+        }
     }
 
-    private String extractTextFromStream(InputStream inputStream) {
-        try (PDDocument document = PDDocument.load(inputStream)) {
-            if (document.isEncrypted()) {
-                log.warn("PDF is encrypted, cannot extract text.");
-                return "";
+    /**
+     * Reserves the heap a document of this size is expected to need, or refuses it. Used heap includes
+     * garbage that has not been collected yet, so under pressure this errs on the side of refusing.
+     */
+    private long admit(long fileSize) {
+        long estimate = heapEstimate(fileSize);
+        if (estimate > heapBudget) {
+            rejected("too_large");
+            throw new RuntimeException("Resume is too large to process");
+        }
+        while (true) {
+            long reserved = reservedHeap.get();
+            if (reserved + estimate > heapBudget || estimate > freeHeap()) {
+                rejected("heap");
+                throw new TransientEvaluationException("Not enough memory to process the resume right now, please try again shortly");
             }
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-        } catch (IOException e) {
-            throw new RuntimeException("Error parsing PDF document", e);
+            if (reservedHeap.compareAndSet(reserved, reserved + estimate)) {
+                return estimate;
+            }
+        }
+    }
+
+    // The object graph grows with the file; above the threshold decoded streams spill to scratch files,
+    // so only the main-memory share of them stays resident
+    private long heapEstimate(long fileSize) {
+        long resident = fileSize > mixedThresholdBytes ? Math.min(fileSize, maxMainMemoryBytes) : fileSize;
+        return resident * heapFactor;
+    }
+
+    private long freeHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    private MemoryUsageSetting memorySetting(long fileSize) {
+        if (fileSize > mixedThresholdBytes) {
+            return MemoryUsageSetting.setupMixed(maxMainMemoryBytes).setTempDir(scratchDir.toFile());
+        }
+        return MemoryUsageSetting.setupMainMemoryOnly();
+    }
+
+    private String extract(Path path, long size, long deadline) throws IOException {
+        long started = System.nanoTime();
+        String outcome = "failed";
+        try (PDDocument document = PDDocument.load(path.toFile(), memorySetting(size))) {
+            String text = extractText(document, deadline);
+            outcome = "success";
+            return text;
+        } catch (DeadlineExceededException e) {
+            outcome = "timeout";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            Timer.builder("pdf.extraction.duration")
+                    .description("Time spent parsing a PDF and stripping its text")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            if ("success".equals(outcome) && elapsed > 0) {
+                throughput.record(size * 1_000_000_000d / elapsed);
+            }
+        }
+    }
+
+    private String extractText(PDDocument document, long deadline) throws IOException {
+        if (document.isEncrypted()) {
+            log.warn("PDF is encrypted, cannot extract text.");
+            return "";
+        }
+        int pages = document.getNumberOfPages();
+        if (pages > maxPages) {
+            truncated.increment();
+            log.info("PDF has {} pages, extracting only the first {}", pages, maxPages);
+        }
+        PDFTextStripper stripper = new DeadlineTextStripper(deadline);
+        stripper.setEndPage(maxPages);
+        return stripper.getText(document);
+    }
+
+    private void rejected(String reason) {
+        meterRegistry.counter("pdf.extraction.rejected", "reason", reason).increment();
+    }
+
+    /**
+     * Checks the deadline (and interruption) before every page, so a timed-out extraction actually stops
+     * instead of finishing a document nobody is waiting for.
+     */
+    private static class DeadlineTextStripper extends PDFTextStripper {
+
+        private final long deadline;
+
+        DeadlineTextStripper(long deadline) throws IOException {
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline > 0) {
+                throw new DeadlineExceededException();
+            }
+            super.startPage(page);
+        }
+    }
+
+    private static class DeadlineExceededException extends IOException {
+        DeadlineExceededException() {
+            super("PDF extraction deadline exceeded");
+        }
+    }
+
+    private static class QueueWaitExceededException extends IOException {
+        QueueWaitExceededException() {
+            super("PDF extraction waited too long for a worker");
         }
     }
 }
@@ -0,0 +1,189 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.entity.Job;
+import com.pramaanhire.pramaanhire.entity.JobScreeningStats;
+import com.pramaanhire.pramaanhire.entity.JobScreeningTerm;
+import com.pramaanhire.pramaanhire.repository.JobRepository;
+import com.pramaanhire.pramaanhire.repository.JobScreeningStatsRepository;
+import com.pramaanhire.pramaanhire.repository.JobScreeningTermRepository;
+import com.pramaanhire.pramaanhire.util.HashUtil;
+import com.pramaanhire.pramaanhire.util.TextTokenizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cheap lexical relevance check run before an application is sent to the LLM. The job description is the
+ * query and the job's applicants are the corpus; resumes scoring below the job's threshold get a provisional
+ * score and wait at low priority, so promising candidates reach HR first.
+ */
+@Service
+@Slf4j
+public class PreScreeningService {
+
+    // Standard BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final JobScreeningStatsRepository statsRepository;
+    private final JobScreeningTermRepository termRepository;
+    private final JobRepository jobRepository;
+    private final TransactionTemplate recordTransaction;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final BigDecimal defaultThreshold;
+    private final int minDocuments;
+
+    public PreScreeningService(JobScreeningStatsRepository statsRepository,
+                               JobScreeningTermRepository termRepository,
+                               JobRepository jobRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${ai.evaluation.prescreen.enabled:true}") boolean enabled,
+                               @Value("${ai.evaluation.prescreen.default-threshold:20}") BigDecimal defaultThreshold,
+                               @Value("${ai.evaluation.prescreen.min-documents:20}") int minDocuments) {
+        this.statsRepository = statsRepository;
+        this.termRepository = termRepository;
+        this.jobRepository = jobRepository;
+        // Runs from afterCommit, where the finished submit transaction is still bound to the thread
+        this.recordTransaction = new TransactionTemplate(transactionManager);
+        this.recordTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.defaultThreshold = defaultThreshold;
+        this.minDocuments = minDocuments;
+    }
+
+    public record PreScreenResult(BigDecimal score, boolean promising) {
+    }
+
+    /**
+     * Scores the resume against the job's corpus statistics as if it were already part of them. The score
+     * is BM25 divided by the best score any document could reach for this query, scaled to 0-100. The
+     * statistics are read without a lock; the resume is added to them only once the submission commits.
+     */
+    @Transactional(readOnly = true)
+    public PreScreenResult screen(Job job, String resumeText) {
+        if (!enabled) {
+            return new PreScreenResult(null, true);
+        }
+
+        Map<String, Integer> termFrequencies = TextTokenizer.termFrequencies(resumeText);
+        int documentLength = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        Set<String> queryTerms = TextTokenizer.termFrequencies(job.getDescription()).keySet();
+        String descriptionHash = HashUtil.sha256Hex(job.getDescription());
+
+        // Statistics collected for an older description count for nothing
+        long n = 0;
+        long totalLength = 0;
+        Map<String, Long> documentFrequencies = new HashMap<>();
+        JobScreeningStats stats = statsRepository.findByJobId(job.getId()).orElse(null);
+        if (stats != null && descriptionHash.equals(stats.getDescriptionHash())) {
+            n = stats.getDocumentCount();
+            totalLength = stats.getTotalDocumentLength();
+            for (JobScreeningTerm term : termRepository.findByJobIdAndTermIn(job.getId(), queryTerms)) {
+                documentFrequencies.put(term.getTerm(), term.getDocumentCount());
+            }
+        }
+
+        // Count this resume first so IDF is defined even for the very first applicant
+        n++;
+        totalLength += documentLength;
+        List<String> matchedTerms = new ArrayList<>();
+        for (String term : queryTerms) {
+            if (termFrequencies.containsKey(term)) {
+                documentFrequencies.merge(term, 1L, Long::sum);
+                matchedTerms.add(term);
+            }
+        }
+        recordAfterCommit(job.getId(), descriptionHash, documentLength, matchedTerms);
+
+        double averageLength = Math.max(1.0, totalLength / (double) n);
+        double score = 0;
+        double maxScore = 0;
+        for (String term : queryTerms) {
+            long df = documentFrequencies.getOrDefault(term, 0L);
+            double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            int tf = termFrequencies.getOrDefault(term, 0);
+            score += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * documentLength / averageLength));
+            maxScore += idf * (K1 + 1);
+        }
+
+        BigDecimal normalized = BigDecimal.valueOf(maxScore == 0 ? 0 : 100 * score / maxScore)
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal threshold = job.getPrescreenThreshold() != null ? job.getPrescreenThreshold() : defaultThreshold;
+
+        // With only a handful of applicants the IDF values are noise, so nobody is held back yet
+        boolean warmingUp = n < minDocuments;
+        boolean promising = warmingUp || normalized.compareTo(threshold) >= 0;
+
+        meterRegistry.counter("ai.evaluation.prescreen",
+                "outcome", warmingUp ? "warm-up" : promising ? "fast-track" : "deferred").increment();
+        log.info("Pre-screen score {} (threshold {}) for job ID: {}, {} applicants in corpus",
+                normalized, threshold, job.getId(), n);
+
+        return new PreScreenResult(normalized, promising);
+    }
+
+    // A rolled-back submission never reaches the statistics
+    private void recordAfterCommit(Long jobId, String descriptionHash, long documentLength, List<String> terms) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(jobId, descriptionHash, documentLength, terms);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(jobId, descriptionHash, documentLength, terms);
+            }
+        });
+    }
+
+    /**
+     * Adds one resume to the job's statistics in a short transaction of its own. Counters are bumped in
+     * place, so concurrent submissions only wait for each other's increments, never for a whole submit.
+     */
+    private void record(Long jobId, String descriptionHash, long documentLength, List<String> terms) {
+        try {
+            recordTransaction.executeWithoutResult(status -> {
+                // Scored against a description that has since been edited; counting it would undo the reset
+                boolean current = jobRepository.findById(jobId)
+                        .map(job -> descriptionHash.equals(HashUtil.sha256Hex(job.getDescription())))
+                        .orElse(false);
+                if (!current) {
+                    return;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                statsRepository.insertIfMissing(jobId, now);
+                if (statsRepository.resetIfDescriptionChanged(jobId, descriptionHash, now) > 0) {
+                    termRepository.deleteByJobId(jobId);
+                }
+                statsRepository.addDocument(jobId, descriptionHash, documentLength, now);
+                // Same order in every transaction, so two submissions cannot deadlock on term rows
+                terms.stream()
+                        .filter(term -> term.length() <= JobScreeningTerm.MAX_TERM_LENGTH)
+                        .sorted()
+                        .forEach(term -> termRepository.increment(jobId, term));
+            });
+        } catch (RuntimeException e) {
+            // The statistics are an estimate; losing one resume from them is not worth failing over
+            log.warn("Failed to record screening statistics for job ID: {}", jobId, e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.ReEvaluationCampaignDto;
+import com.pramaanhire.pramaanhire.dto.ReEvaluationCampaignRequest;
+import com.pramaanhire.pramaanhire.entity.Application;
+import com.pramaanhire.pramaanhire.entity.Job;
+import com.pramaanhire.pramaanhire.entity.ReEvaluationCampaign;
+import com.pramaanhire.pramaanhire.entity.User;
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.CampaignStatus;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationTaskRepository;
+import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.repository.JobRepository;
+import com.pramaanhire.pramaanhire.repository.ReEvaluationCampaignRepository;
+import com.pramaanhire.pramaanhire.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Re-scores a job's existing applications after a prompt or model change. Campaigns feed the normal
+ * evaluation queue a few applications at a time, so the scheduler never sees the whole job at once, and
+ * every application keeps its current score until the new evaluation is saved.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReEvaluationCampaignService {
+
+    private static final Set<CampaignStatus> ACTIVE = Set.of(CampaignStatus.RUNNING, CampaignStatus.PAUSED);
+    private static final Set<EvaluationTaskStatus> IN_FLIGHT = Set.of(EvaluationTaskStatus.PENDING, EvaluationTaskStatus.IN_PROGRESS);
+
+    private final ReEvaluationCampaignRepository campaignRepository;
+    private final JobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final ApplicationRepository applicationRepository;
+    private final AiEvaluationTaskRepository taskRepository;
+    private final EvaluationTaskService evaluationTaskService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ai.evaluation.campaign.default-rate-per-minute:30}")
+    private int defaultRatePerMinute;
+
+    // Queued but unfinished work is capped at this many minutes of the campaign's rate
+    @Value("${ai.evaluation.campaign.max-in-flight-minutes:2}")
+    private int maxInFlightMinutes;
+
+    @Transactional
+    public ReEvaluationCampaignDto startCampaign(Long jobId, ReEvaluationCampaignRequest request, Long hrId) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found"));
+
+        if (!job.getHr().getId().equals(hrId)) {
+            throw new AccessDeniedException("You are not authorized to re-evaluate applications for this job");
+        }
+        if (campaignRepository.existsByJobIdAndStatusIn(jobId, ACTIVE)) {
+            throw new RuntimeException("A re-evaluation campaign is already active for this job");
+        }
+        if (request.getMinScore() != null && request.getMaxScore() != null
+                && request.getMinScore().compareTo(request.getMaxScore()) > 0) {
+            throw new IllegalArgumentException("Minimum score cannot be greater than maximum score");
+        }
+
+        String statusFilter = request.getStatuses() == null || request.getStatuses().isEmpty()
+                ? null
+                : request.getStatuses().stream().map(Enum::name).distinct().collect(Collectors.joining(","));
+        long total = applicationRepository.countForCampaign(jobId, statuses(statusFilter),
+                request.getMinScore(), request.getMaxScore());
+        if (total == 0) {
+            throw new RuntimeException("No applications match this filter");
+        }
+
+        User hr = userRepository.getReferenceById(hrId);
+        ReEvaluationCampaign campaign = ReEvaluationCampaign.builder()
+                .job(job)
+                .createdBy(hr)
+                .status(CampaignStatus.RUNNING)
+                .statusFilter(statusFilter)
+                .minScore(request.getMinScore())
+                .maxScore(request.getMaxScore())
+                .ratePerMinute(request.getRatePerMinute() != null ? request.getRatePerMinute() : defaultRatePerMinute)
+                .totalApplications((int) total)
+                .startedAt(LocalDateTime.now())
+                .build();
+        campaignRepository.save(campaign);
+
+        log.info("Started re-evaluation campaign {} for job ID: {} ({} applications at {}/min)",
+                campaign.getId(), jobId, total, campaign.getRatePerMinute());
+        return toDto(campaign);
+    }
+
+    @Transactional(readOnly = true)
+    public ReEvaluationCampaignDto getCampaign(Long campaignId, Long hrId) {
+        return toDto(findOwned(campaignId, hrId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReEvaluationCampaignDto> getCampaignsForJob(Long jobId, Long hrId) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found"));
+
+        if (!job.getHr().getId().equals(hrId)) {
+            throw new AccessDeniedException("You are not authorized to view this job");
+        }
+
+        return campaignRepository.findByJobIdOrderByCreatedAtDesc(jobId).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public ReEvaluationCampaignDto pauseCampaign(Long campaignId, Long hrId) {
+        ReEvaluationCampaign campaign = findOwned(campaignId, hrId);
+        if (campaign.getStatus() != CampaignStatus.RUNNING) {
+            throw new RuntimeException("Only a running campaign can be paused");
+        }
+        campaign.setStatus(CampaignStatus.PAUSED);
+        return toDto(campaignRepository.save(campaign));
+    }
+
+    @Transactional
+    public ReEvaluationCampaignDto resumeCampaign(Long campaignId, Long hrId) {
+        ReEvaluationCampaign campaign = findOwned(campaignId, hrId);
+        if (campaign.getStatus() != CampaignStatus.PAUSED) {
+            throw new RuntimeException("Only a paused campaign can be resumed");
+        }
+        campaign.setStatus(CampaignStatus.RUNNING);
+        // No catching up on the time spent paused
+        campaign.setLastEnqueueAt(LocalDateTime.now());
+        return toDto(campaignRepository.save(campaign));
+    }
+
+    /**
+     * Stops queueing further applications. Applications already queued are still evaluated.
+     */
+    @Transactional
+    public ReEvaluationCampaignDto cancelCampaign(Long campaignId, Long hrId) {
+        ReEvaluationCampaign campaign = findOwned(campaignId, hrId);
+        if (!ACTIVE.contains(campaign.getStatus())) {
+            throw new RuntimeException("This campaign has already finished");
+        }
+        campaign.setStatus(CampaignStatus.CANCELLED);
+        campaign.setFinishedAt(LocalDateTime.now());
+        return toDto(campaignRepository.save(campaign));
+    }
+
+    @Scheduled(fixedDelayString = "${ai.evaluation.campaign.tick-interval-ms:10000}")
+    public void advanceCampaigns() {
+        for (Long campaignId : campaignRepository.findIdsByStatus(CampaignStatus.RUNNING)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> advance(campaignId));
+            } catch (Exception e) {
+                log.error("Failed to advance re-evaluation campaign " + campaignId, e);
+            }
+        }
+    }
+
+    private void advance(Long campaignId) {
+        ReEvaluationCampaign campaign = campaignRepository.findForUpdateById(campaignId).orElse(null);
+        if (campaign == null || campaign.getStatus() != CampaignStatus.RUNNING) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int rate = campaign.getRatePerMinute();
+        LocalDateTime since = campaign.getLastEnqueueAt() != null ? campaign.getLastEnqueueAt() : campaign.getStartedAt();
+        long earned = Duration.between(since, now).toMillis() * rate / 60_000;
+        // At most a minute's worth after downtime, and never more than the pool is keeping up with
+        long inFlight = taskRepository.countByCampaignIdAndStatusIn(campaignId, IN_FLIGHT);
+        int allowed = (int) Math.min(Math.min(earned, rate), Math.max(0, (long) rate * maxInFlightMinutes - inFlight));
+        if (allowed <= 0) {
+            return;
+        }
+
+        List<Long> ids = applicationRepository.findCampaignBatch(campaign.getJob().getId(), campaign.getLastApplicationId(),
+                statuses(campaign.getStatusFilter()), campaign.getMinScore(), campaign.getMaxScore(),
+                PageRequest.of(0, allowed));
+
+        if (ids.isEmpty()) {
+            if (inFlight == 0) {
+                campaign.setStatus(CampaignStatus.COMPLETED);
+                campaign.setFinishedAt(now);
+                log.info("Re-evaluation campaign {} completed", campaignId);
+            }
+            campaign.setLastEnqueueAt(now);
+            campaignRepository.save(campaign);
+            return;
+        }
+
+        for (Application application : applicationRepository.findAllById(ids)) {
+            evaluationTaskService.enqueueReEvaluation(application, campaign);
+        }
+        campaign.setLastApplicationId(ids.get(ids.size() - 1));
+        campaign.setEnqueuedCount(campaign.getEnqueuedCount() + ids.size());
+        // Unused allowance is carried over only while it stays under the one-minute cap
+        campaign.setLastEnqueueAt(earned > rate ? now : since.plusNanos(ids.size() * 60_000_000_000L / rate));
+        campaignRepository.save(campaign);
+
+        log.debug("Re-evaluation campaign {} queued {} applications", campaignId, ids.size());
+    }
+
+    private ReEvaluationCampaign findOwned(Long campaignId, Long hrId) {
+        ReEvaluationCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new RuntimeException("Campaign not found"));
+
+        if (!campaign.getJob().getHr().getId().equals(hrId)) {
+            throw new AccessDeniedException("You are not authorized to manage this campaign");
+        }
+        return campaign;
+    }
+
+    private List<ApplicationStatus> statuses(String statusFilter) {
+        if (statusFilter == null || statusFilter.isBlank()) {
+            return Arrays.asList(ApplicationStatus.values());
+        }
+        return Arrays.stream(statusFilter.split(","))
+                .map(ApplicationStatus::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private ReEvaluationCampaignDto toDto(ReEvaluationCampaign campaign) {
+        long completed = taskRepository.countByCampaignIdAndStatus(campaign.getId(), EvaluationTaskStatus.COMPLETED);
+        long failed = taskRepository.countByCampaignIdAndStatus(campaign.getId(), EvaluationTaskStatus.DEAD_LETTER);
+        long inProgress = taskRepository.countByCampaignIdAndStatusIn(campaign.getId(), IN_FLIGHT);
+        int total = campaign.getTotalApplications();
+        long remaining = Math.max(0, total - completed - failed);
+
+        return ReEvaluationCampaignDto.builder()
+                .id(campaign.getId())
+                .jobId(campaign.getJob().getId())
+                .status(campaign.getStatus())
+                .statuses(campaign.getStatusFilter() != null ? statuses(campaign.getStatusFilter()) : List.of())
+                .minScore(campaign.getMinScore())
+                .maxScore(campaign.getMaxScore())
+                .ratePerMinute(campaign.getRatePerMinute())
+                .totalApplications(total)
+                .enqueued(campaign.getEnqueuedCount())
+                .completed(completed)
+                .failed(failed)
+                .inProgress(inProgress)
+                .percentComplete(total == 0 ? 100 : (int) Math.min(100, (completed + failed) * 100 / total))
+                .startedAt(campaign.getStartedAt())
+                .finishedAt(campaign.getFinishedAt())
+                .estimatedCompletionAt(estimateCompletion(campaign, completed + failed, remaining))
+                .build();
+    }
+
+    // Finishes no faster than the configured rate, and no faster than evaluations have actually been completing
+    private LocalDateTime estimateCompletion(ReEvaluationCampaign campaign, long done, long remaining) {
+        if (campaign.getStatus() != CampaignStatus.RUNNING || remaining == 0) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        double perMinute = campaign.getRatePerMinute();
+        double minutesRunning = Duration.between(campaign.getStartedAt(), now).toSeconds() / 60.0;
+        if (done > 0 && minutesRunning >= 1) {
+            perMinute = Math.min(perMinute, done / minutesRunning);
+        }
+        return now.plusSeconds((long) Math.ceil(remaining / perMinute * 60));
+    }
+}
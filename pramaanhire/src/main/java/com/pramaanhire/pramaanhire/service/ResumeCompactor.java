@@ -0,0 +1,131 @@
+package com.pramaanhire.pramaanhire.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Cleans up raw PDFTextStripper output before it goes into a prompt: whitespace is normalized,
+ * page numbers and running headers/footers are removed, and low-value resume sections can be
+ * dropped when the prompt is over budget.
+ */
+@Component
+public class ResumeCompactor {
+
+    private static final Pattern INLINE_WHITESPACE = Pattern.compile("[\\t\\u00A0\\u2007\\u202F ]+");
+    private static final Pattern PAGE_NUMBER = Pattern.compile("(?i)^[-–\\s]*(page\\s*)?\\d{1,3}(\\s*(of|/)\\s*\\d{1,3})?[-–\\s]*$");
+
+    // Lines repeated this often are running headers/footers (name, email, "Curriculum Vitae") on every page
+    private static final int REPEATED_LINE_THRESHOLD = 3;
+    private static final int MIN_REPEATED_LINE_LENGTH = 4;
+    private static final int MAX_HEADING_LENGTH = 40;
+
+    private static final Set<String> LOW_PRIORITY_SECTIONS = Set.of(
+            "hobbies", "interests", "hobbies and interests", "hobbies & interests", "references", "referees",
+            "declaration", "personal details", "personal information", "personal profile", "personal data",
+            "extra curricular activities", "extracurricular activities", "extra-curricular activities");
+
+    private static final Set<String> KNOWN_SECTIONS = Set.of(
+            "summary", "professional summary", "profile", "objective", "career objective", "about me",
+            "experience", "work experience", "professional experience", "employment", "employment history",
+            "internships", "education", "academic background", "skills", "technical skills", "key skills",
+            "projects", "academic projects", "certifications", "certificates", "achievements", "awards",
+            "publications", "languages", "courses", "training", "volunteering", "leadership");
+
+    /**
+     * Normalizes whitespace and strips page artifacts and repeated lines. Content is otherwise left untouched.
+     */
+    public String clean(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return "";
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String line : raw.replace("\f", "\n").split("\\R")) {
+            String normalized = INLINE_WHITESPACE.matcher(line).replaceAll(" ").trim();
+            if (!PAGE_NUMBER.matcher(normalized).matches()) {
+                lines.add(normalized);
+            }
+        }
+
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (String line : lines) {
+            if (line.length() >= MIN_REPEATED_LINE_LENGTH) {
+                occurrences.merge(line.toLowerCase(Locale.ROOT), 1, Integer::sum);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        Set<String> emittedRepeats = new HashSet<>();
+        String previous = null;
+        for (String line : lines) {
+            if (line.isEmpty()) {
+                // Collapse runs of blank lines into one
+                if (previous != null && !previous.isEmpty()) {
+                    sb.append('\n');
+                }
+                previous = line;
+                continue;
+            }
+            String key = line.toLowerCase(Locale.ROOT);
+            if (line.equals(previous)) {
+                continue;
+            }
+            if (occurrences.getOrDefault(key, 0) >= REPEATED_LINE_THRESHOLD && !emittedRepeats.add(key)) {
+                continue;
+            }
+            sb.append(line).append('\n');
+            previous = line;
+        }
+        return sb.toString().strip();
+    }
+
+    /**
+     * Collapses whitespace in free text such as job descriptions and screening answers.
+     */
+    public String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return INLINE_WHITESPACE.matcher(text).replaceAll(" ")
+                .replaceAll(" ?\\R ?", "\n")
+                .replaceAll("\\n{3,}", "\n\n")
+                .strip();
+    }
+
+    /**
+     * Removes sections such as hobbies, references and declarations, which rarely affect the evaluation.
+     */
+    public String dropLowPrioritySections(String resume) {
+        StringBuilder sb = new StringBuilder();
+        boolean skipping = false;
+        for (String line : resume.split("\n", -1)) {
+            String heading = asHeading(line);
+            if (heading != null) {
+                if (LOW_PRIORITY_SECTIONS.contains(heading)) {
+                    skipping = true;
+                } else if (KNOWN_SECTIONS.contains(heading)) {
+                    skipping = false;
+                }
+            }
+            if (!skipping) {
+                sb.append(line).append('\n');
+            }
+        }
+        return sb.toString().strip();
+    }
+
+    private String asHeading(String line) {
+        if (line.isEmpty() || line.length() > MAX_HEADING_LENGTH) {
+            return null;
+        }
+        return line.replaceAll("[:\\-–_•|*]+$", "").trim().toLowerCase(Locale.ROOT);
+    }
+}
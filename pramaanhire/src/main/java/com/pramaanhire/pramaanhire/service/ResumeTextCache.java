@@ -0,0 +1,247 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.util.CompressionUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Extracted resume text keyed by the SHA-256 of the PDF, so the same bytes go through PDFBox once no
+ * matter how many applications or retries use them. Recent entries are kept in an LRU map bounded by
+ * total characters; every entry is also written gzipped under {@code <upload-dir>/.text-cache}, which
+ * survives restarts and eviction. Concurrent misses on the same hash share a single extraction.
+ */
+@Component
+@Slf4j
+public class ResumeTextCache {
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final boolean enabled;
+    private final long maxChars;
+    private final int maxPages;
+    private final Path cacheDir;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalChars;
+    // Extractions in progress, so a second request for the same bytes waits instead of parsing again
+    private final ConcurrentHashMap<String, CompletableFuture<String>> loading = new ConcurrentHashMap<>();
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter sharedLoads;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public ResumeTextCache(MeterRegistry meterRegistry,
+                           @Value("${file.upload-dir}") String uploadDir,
+                           @Value("${pdf.extraction.cache.enabled:true}") boolean enabled,
+                           @Value("${pdf.extraction.cache.max-chars:20000000}") long maxChars,
+                           @Value("${pdf.extraction.max-pages:50}") int maxPages) {
+        this.enabled = enabled;
+        this.maxChars = maxChars;
+        this.maxPages = maxPages;
+        this.cacheDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".text-cache");
+        if (enabled) {
+            try {
+                Files.createDirectories(this.cacheDir);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not create the extracted text cache directory", e);
+            }
+        }
+
+        this.memoryHits = Counter.builder("pdf.extraction.cache.requests").tag("result", "memory").register(meterRegistry);
+        this.diskHits = Counter.builder("pdf.extraction.cache.requests").tag("result", "disk").register(meterRegistry);
+        this.sharedLoads = Counter.builder("pdf.extraction.cache.requests").tag("result", "shared").register(meterRegistry);
+        this.misses = Counter.builder("pdf.extraction.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.bytesSaved = Counter.builder("pdf.extraction.cache.bytes.saved")
+                .description("PDF bytes that did not have to be parsed because their text was cached")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pdf.extraction.cache.hit.ratio", this, ResumeTextCache::hitRatio)
+                .description("Share of lookups answered from memory, disk or another request's extraction")
+                .register(meterRegistry);
+        Gauge.builder("pdf.extraction.cache.chars", this, ResumeTextCache::cachedChars)
+                .description("Characters of text held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached text for these PDF bytes, or runs {@code extractor} and caches its result.
+     * {@code pdfBytes} is only used to report how much parsing a hit saved. Without a valid hash the
+     * extractor is simply called.
+     */
+    public String get(String sha256, long pdfBytes, Supplier<String> extractor) {
+        if (!enabled || sha256 == null || !SHA256.matcher(sha256).matches()) {
+            return extractor.get();
+        }
+        String key = key(sha256);
+
+        String text = fromMemory(key);
+        if (text != null) {
+            memoryHits.increment();
+            bytesSaved.increment(pdfBytes);
+            return text;
+        }
+
+        text = fromDisk(key);
+        if (text != null) {
+            diskHits.increment();
+            bytesSaved.increment(pdfBytes);
+            remember(key, text);
+            return text;
+        }
+
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            sharedLoads.increment();
+            bytesSaved.increment(pdfBytes);
+            return await(running);
+        }
+
+        try {
+            // The previous loader may have finished between our lookups and claiming the slot
+            text = fromMemory(key);
+            if (text == null) {
+                misses.increment();
+                text = extractor.get();
+                remember(key, text);
+                toDisk(key, text);
+            }
+            load.complete(text);
+            return text;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    // Waiters see the loader's own exception, so a transient failure stays transient
+    private static String await(CompletableFuture<String> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets the text of a PDF whose file has been deleted.
+     */
+    public void evict(String sha256) {
+        if (!enabled || sha256 == null || !SHA256.matcher(sha256).matches()) {
+            return;
+        }
+        String key = key(sha256);
+        synchronized (this) {
+            String removed = entries.remove(key);
+            if (removed != null) {
+                totalChars -= removed.length();
+            }
+        }
+        try {
+            Files.deleteIfExists(diskPath(key));
+        } catch (IOException e) {
+            log.warn("Could not delete cached text for {}", sha256, e);
+        }
+    }
+
+    // The page limit shapes the text, so changing it must not serve text extracted under the old limit
+    private String key(String sha256) {
+        return sha256 + "-p" + maxPages;
+    }
+
+    private synchronized String fromMemory(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void remember(String key, String text) {
+        if (text.length() > maxChars) {
+            return;
+        }
+        String previous = entries.put(key, text);
+        totalChars += text.length() - (previous == null ? 0 : previous.length());
+        Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+        while (totalChars > maxChars && eldest.hasNext()) {
+            totalChars -= eldest.next().getValue().length();
+            eldest.remove();
+        }
+    }
+
+    private synchronized long cachedChars() {
+        return totalChars;
+    }
+
+    private String fromDisk(String key) {
+        Path path = diskPath(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return CompressionUtil.gunzip(Files.readAllBytes(path));
+        } catch (IOException | RuntimeException e) {
+            // A truncated entry is dropped and rebuilt from the PDF
+            log.warn("Discarding unreadable cached text {}", path.getFileName(), e);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Overwritten by the next successful extraction anyway
+            }
+            return null;
+        }
+    }
+
+    // Written to a temp file and renamed, so a reader never sees half an entry
+    private void toDisk(String key, String text) {
+        Path path = diskPath(key);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(path.getParent());
+            tempFile = Files.createTempFile(path.getParent(), "text-", ".tmp");
+            Files.write(tempFile, CompressionUtil.gzip(text));
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The memory tier still has it; the disk copy is only an optimization
+            log.warn("Could not write cached text {}", path.getFileName(), e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Stray temp files never match an entry name
+                }
+            }
+        }
+    }
+
+    private Path diskPath(String key) {
+        return cacheDir.resolve(key.substring(0, 2)).resolve(key + ".txt.gz");
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + diskHits.count() + sharedLoads.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.entity.Application;
+import com.pramaanhire.pramaanhire.entity.ResumeText;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.exception.TransientEvaluationException;
+import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.repository.ResumeTextRepository;
+import com.pramaanhire.pramaanhire.util.CompressionUtil;
+import com.pramaanhire.pramaanhire.util.HashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumeTextService {
+
+    private final ResumeTextRepository resumeTextRepository;
+    private final ApplicationRepository applicationRepository;
+    private final FileStorageService fileStorageService;
+    private final PdfExtractionService pdfExtractionService;
+    private final ResumeTextCache resumeTextCache;
+
+    @Transactional
+    public void save(Application application, String text) {
+        ResumeText resumeText = ResumeText.builder()
+                .application(application)
+                .compressedText(CompressionUtil.gzip(text))
+                .charCount(text.length())
+                .build();
+        resumeTextRepository.save(resumeText);
+    }
+
+    /**
+     * Text extracted earlier from a byte-identical resume, so a candidate re-using the same PDF does not
+     * pay for PDF parsing again.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findByResumeHash(String sha256) {
+        if (sha256 == null) {
+            return Optional.empty();
+        }
+        return resumeTextRepository.findFirstByApplicationResumeSha256OrderByIdAsc(sha256)
+                .map(stored -> CompressionUtil.gunzip(stored.getCompressedText()));
+    }
+
+    /**
+     * Returns the stored resume text for an application. Applications submitted before the text was
+     * persisted are parsed from the stored PDF once and saved, so later reads never touch PDFBox.
+     */
+    @Transactional
+    public String getText(Long applicationId) {
+        return resumeTextRepository.findByApplicationId(applicationId)
+                .map(stored -> CompressionUtil.gunzip(stored.getCompressedText()))
+                .orElseGet(() -> extractAndSave(applicationId));
+    }
+
+    private String extractAndSave(Long applicationId) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new RuntimeException("Application not found"));
+
+        log.info("No stored resume text for application ID: {}, extracting from PDF", applicationId);
+        String text;
+        try {
+            Path resumePath = fileStorageService.locate(application.getResumeUrl());
+            if (application.getResumeSha256() == null) {
+                // Uploaded before files were hashed; hashing once is far cheaper than parsing, and the
+                // saved hash lets every later lookup of these bytes hit the cache
+                application.setResumeSha256(hash(resumePath));
+            }
+            String sha256 = application.getResumeSha256();
+            text = resumeTextCache.get(sha256, Files.size(resumePath),
+                    () -> pdfExtractionService.extractTextFromFile(resumePath));
+        } catch (TransientEvaluationException e) {
+            // Extraction pool or heap was full; the file itself is fine
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            // A missing or corrupt file will not fix itself on the next attempt
+            throw new PermanentEvaluationException("Stored resume could not be read: " + e.getMessage(), e);
+        }
+
+        save(application, text);
+        return text;
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = HashUtil.newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
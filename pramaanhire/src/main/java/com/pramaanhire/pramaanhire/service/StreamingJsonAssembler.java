@@ -0,0 +1,132 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.exception.TransientEvaluationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Feeds LLM output chunk by chunk into Jackson's non-blocking parser. Anything before the first
+ * brace (a ```json fence, a short preamble) is skipped, everything after the root value closes
+ * (the closing fence) is ignored, and a syntax error fails immediately instead of after the whole
+ * response has been paid for. Not thread-safe; use one instance per response.
+ */
+public class StreamingJsonAssembler {
+
+    // Allowance for "Here is the evaluation:" style chatter before the JSON starts
+    private static final int MAX_PREAMBLE_LENGTH = 200;
+    private static final Pattern FENCE = Pattern.compile("```[a-zA-Z]*");
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer buffer;
+    private final StringBuilder preamble = new StringBuilder();
+
+    private boolean started;
+    private boolean complete;
+    private int depth;
+
+    StreamingJsonAssembler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.buffer = new TokenBuffer(objectMapper, false);
+    }
+
+    /**
+     * Consumes the next chunk of model output.
+     *
+     * @return {@code true} once the root JSON value is complete and the rest of the stream can be dropped
+     */
+    public boolean feed(String chunk) {
+        if (complete || chunk == null || chunk.isEmpty()) {
+            return complete;
+        }
+
+        String json = chunk;
+        if (!started) {
+            preamble.append(chunk);
+            int start = indexOfJsonStart(preamble);
+            checkPreamble(start < 0 ? preamble : preamble.subSequence(0, start));
+            if (start < 0) {
+                return false;
+            }
+            started = true;
+            json = preamble.substring(start);
+        }
+
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            throw new PermanentEvaluationException("AI response was not valid JSON: " + e.getMessage(), e);
+        }
+        return complete;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public JsonNode result() {
+        if (!started) {
+            throw new PermanentEvaluationException("AI response did not contain any JSON");
+        }
+        if (!complete) {
+            // Usually a dropped connection or a response cut off at the token limit
+            throw new TransientEvaluationException("AI response ended before the JSON was complete");
+        }
+        try {
+            return objectMapper.readTree(buffer.asParser());
+        } catch (IOException e) {
+            throw new PermanentEvaluationException("AI response was not valid JSON", e);
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (depth == 0 && !token.isStructStart()) {
+                throw new PermanentEvaluationException("AI response was not a JSON object or array");
+            }
+            buffer.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 0) {
+                complete = true;
+                return;
+            }
+        }
+    }
+
+    private int indexOfJsonStart(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkPreamble(CharSequence text) {
+        String chatter = FENCE.matcher(text).replaceAll("").strip();
+        if (chatter.length() > MAX_PREAMBLE_LENGTH) {
+            throw new PermanentEvaluationException("AI response did not start with JSON");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pramaanhire.pramaanhire.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class TextTokenizer {
+
+    // Keeps '+', '#' and '.' inside tokens so "c++", "c#" and "node.js" survive
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9+#.]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "in", "is", "it",
+            "its", "of", "on", "or", "our", "that", "the", "their", "this", "to", "was", "we", "will", "with",
+            "you", "your", "i", "my", "me", "who", "which", "can", "should", "must", "etc", "also", "into",
+            "using", "work", "working", "experience", "years", "year", "team", "role", "job", "candidate");
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * Lower-cased term counts with stop words, single characters and bare numbers removed.
+     */
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        if (text == null) {
+            return frequencies;
+        }
+        for (String raw : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            // Trailing dots are sentence ends, not part of the term
+            String token = raw.replaceAll("^\\.+|\\.+$", "");
+            if (token.length() < 2 || STOP_WORDS.contains(token) || token.chars().allMatch(Character::isDigit)) {
+                continue;
+            }
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pramaanhire.pramaanhire.util;
+
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    // Rough heuristic (~4 characters per token for English text), good enough for budgeting and accounting
+    public static int estimate(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+
+    /**
+     * Cuts {@code text} down to roughly {@code maxTokens}, preferring to stop at a line break.
+     */
+    public static String truncate(String text, int maxTokens, String marker) {
+        if (text == null || estimate(text) <= maxTokens) {
+            return text;
+        }
+        int maxChars = Math.max(0, maxTokens * 4 - marker.length());
+        int cut = text.lastIndexOf('\n', maxChars);
+        // Fall back to a hard cut when the last line break would throw away most of the allowance
+        if (cut < maxChars / 2) {
+            cut = maxChars;
+        }
+        return text.substring(0, cut).stripTrailing() + marker;
+    }
+}
@@ -0,0 +1,274 @@
+package com.pramaanhire.pramaanhire;
+
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
+import com.pramaanhire.pramaanhire.entity.Job;
+import com.pramaanhire.pramaanhire.entity.User;
+import com.pramaanhire.pramaanhire.enums.EmploymentType;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import com.pramaanhire.pramaanhire.enums.JobStatus;
+import com.pramaanhire.pramaanhire.enums.Role;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationTaskRepository;
+import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.repository.JobRepository;
+import com.pramaanhire.pramaanhire.repository.UserRepository;
+import com.pramaanhire.pramaanhire.service.ApplicationService;
+import com.pramaanhire.pramaanhire.service.EmailService;
+import com.pramaanhire.pramaanhire.support.StubLlmServer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives applications through submit, evaluate and persist against {@link StubLlmServer} and reports
+ * evaluation throughput and end-to-end latency percentiles. No real LLM tokens are spent.
+ * <p>
+ * Tagged {@code load} and excluded from the normal build; run with {@code mvn test -Pload-test} against a
+ * disposable PostgreSQL database (the usual {@code SPRING_DATASOURCE_*} variables). Tunable with system
+ * properties: {@code load.applications}, {@code load.concurrency}, {@code load.latency-median-ms},
+ * {@code load.rate-limit-ratio}, {@code load.malformed-ratio}, {@code load.seed} and {@code load.timeout-minutes}.
+ */
+@Tag("load")
+@SpringBootTest
+class EvaluationPipelineLoadTest {
+
+    private static final int APPLICATIONS = Integer.getInteger("load.applications", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final long SEED = Long.getLong("load.seed", 42L);
+    private static final Duration TIMEOUT = Duration.ofMinutes(Long.getLong("load.timeout-minutes", 30L));
+
+    private static final List<String> SKILLS = List.of("Java", "Spring Boot", "PostgreSQL", "Kafka", "Docker",
+            "Kubernetes", "React", "TypeScript", "AWS", "Redis", "GraphQL", "Python", "Terraform", "CI/CD");
+
+    private static final StubLlmServer STUB = startStub();
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private AiEvaluationTaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    private static StubLlmServer startStub() {
+        try {
+            return StubLlmServer.builder()
+                    .latency(StubLlmServer.LatencyProfile.logNormal(Long.getLong("load.latency-median-ms", 800L), 0.5))
+                    .rateLimitRatio(Double.parseDouble(System.getProperty("load.rate-limit-ratio", "0.02")))
+                    .malformedRatio(Double.parseDouble(System.getProperty("load.malformed-ratio", "0.01")))
+                    .seed(SEED)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) throws IOException {
+        String uploadDir = Files.createTempDirectory("load-test-uploads").toString();
+        registry.add("spring.ai.openai.base-url", STUB::baseUrl);
+        registry.add("spring.ai.openai.api-key", () -> "stub-key");
+        registry.add("ai.evaluation.routing.models", () -> "stub-small,stub-large");
+        // The stub speaks plain HTTP/1.1
+        registry.add("ai.llm.http.http2-enabled", () -> "false");
+        registry.add("ai.evaluation.queue.poll-interval-ms", () -> "500");
+        registry.add("ai.evaluation.retry.base-delay-seconds", () -> "1");
+        registry.add("ai.evaluation.retry.max-delay-seconds", () -> "10");
+        registry.add("file.upload-dir", () -> uploadDir);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void evaluatesSubmittedApplications() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User hr = userRepository.save(user("load-hr-" + run + "@example.test", Role.HR));
+        Job job = jobRepository.save(Job.builder()
+                .hr(hr)
+                .title("Senior Backend Engineer")
+                .description("We are looking for a backend engineer to build and operate Java services. "
+                        + "You will design REST APIs with Spring Boot, model data in PostgreSQL, run services on "
+                        + "Kubernetes in AWS and own CI/CD pipelines. Experience with Kafka and Redis is a plus.")
+                .location("Remote")
+                .employmentType(EmploymentType.FULL_TIME)
+                .status(JobStatus.OPEN)
+                .questions(new ArrayList<>())
+                .build());
+
+        List<Long> candidateIds = new ArrayList<>();
+        for (int i = 0; i < APPLICATIONS; i++) {
+            candidateIds.add(userRepository.save(user("load-" + run + "-" + i + "@example.test", Role.CANDIDATE)).getId());
+        }
+
+        long started = System.nanoTime();
+        List<Long> applicationIds = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService submitters = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> submissions = new ArrayList<>();
+            for (int i = 0; i < APPLICATIONS; i++) {
+                Long candidateId = candidateIds.get(i);
+                byte[] resume = resumePdf(new Random(SEED + i), "Candidate " + i);
+                submissions.add(submitters.submit(() -> applicationIds.add(applicationService.submitApplication(
+                        candidateId, job.getId(), "[]",
+                        new MockMultipartFile("resume", "resume.pdf", "application/pdf", resume)))));
+            }
+            for (Future<?> submission : submissions) {
+                submission.get();
+            }
+        } finally {
+            submitters.shutdown();
+        }
+        double submitSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<Long, EvaluationTaskStatus> statuses = awaitTerminal(applicationIds);
+        double totalSeconds = (System.nanoTime() - started) / 1e9;
+
+        List<Long> latenciesMs = endToEndLatencies(applicationIds);
+        long completed = statuses.values().stream().filter(s -> s == EvaluationTaskStatus.COMPLETED).count();
+        long deadLettered = statuses.values().stream().filter(s -> s == EvaluationTaskStatus.DEAD_LETTER).count();
+
+        System.out.printf("%n=== Evaluation pipeline load test ===%n");
+        System.out.printf("Applications:        %d (%d submitters, %.1fs to submit)%n", APPLICATIONS, CONCURRENCY, submitSeconds);
+        System.out.printf("Completed:           %d, dead-lettered: %d, wall time %.1fs%n", completed, deadLettered, totalSeconds);
+        System.out.printf("Throughput:          %.2f evaluations/s%n", completed / totalSeconds);
+        System.out.printf("End-to-end latency:  p50 %dms, p95 %dms, p99 %dms, max %dms%n",
+                percentile(latenciesMs, 0.50), percentile(latenciesMs, 0.95), percentile(latenciesMs, 0.99),
+                latenciesMs.isEmpty() ? 0 : latenciesMs.get(latenciesMs.size() - 1));
+        System.out.printf("Stub:                %d requests, %d rate-limited, %d malformed%n%n",
+                STUB.requests(), STUB.rateLimited(), STUB.malformed());
+
+        assertThat(applicationIds).hasSize(APPLICATIONS);
+        assertThat(statuses.values())
+                .as("every application reaches a terminal state")
+                .allMatch(s -> s == EvaluationTaskStatus.COMPLETED || s == EvaluationTaskStatus.DEAD_LETTER);
+        // Rate limits are retried; only malformed output may dead-letter an application
+        assertThat(deadLettered).isLessThanOrEqualTo(STUB.malformed());
+    }
+
+    private Map<Long, EvaluationTaskStatus> awaitTerminal(List<Long> applicationIds) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        Map<Long, EvaluationTaskStatus> statuses = new ConcurrentHashMap<>();
+        while (System.nanoTime() < deadline) {
+            for (AiEvaluationTask task : taskRepository.findByApplicationIdIn(applicationIds)) {
+                statuses.put(task.getApplication().getId(), task.getStatus());
+            }
+            boolean done = statuses.size() == applicationIds.size() && statuses.values().stream()
+                    .allMatch(s -> s == EvaluationTaskStatus.COMPLETED || s == EvaluationTaskStatus.DEAD_LETTER);
+            if (done) {
+                break;
+            }
+            Thread.sleep(1000);
+        }
+        return statuses;
+    }
+
+    // Submission to committed evaluation, as recorded in the database
+    private List<Long> endToEndLatencies(List<Long> applicationIds) {
+        List<Long> latencies = transactionTemplate.execute(status -> applicationRepository.findAllById(applicationIds).stream()
+                .filter(app -> app.getAiEvaluation() != null)
+                .map(app -> Duration.between(app.getSubmittedAt(), app.getAiEvaluation().getCreatedAt()).toMillis())
+                .collect(Collectors.toList()));
+        Collections.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .email(email)
+                .password("load-test")
+                .role(role)
+                .fullName(email.substring(0, email.indexOf('@')))
+                .build();
+    }
+
+    // A one-page resume with a random mix of skills, so pre-screen and evaluation scores vary
+    private static byte[] resumePdf(Random random, String name) {
+        List<String> skills = new ArrayList<>(SKILLS);
+        Collections.shuffle(skills, random);
+        List<String> lines = List.of(
+                name,
+                "Experience",
+                (2 + random.nextInt(10)) + " years building backend services.",
+                "Worked with " + String.join(", ", skills.subList(0, 3 + random.nextInt(5))) + ".",
+                "Education",
+                "B.Tech in Computer Science",
+                "Skills",
+                String.join(", ", skills.subList(0, 6)),
+                "Projects",
+                "Migrated a monolith to services handling " + (1 + random.nextInt(50)) + "k requests per second.");
+
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 740);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.pramaanhire.pramaanhire;
+
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
+import com.pramaanhire.pramaanhire.entity.Application;
+import com.pramaanhire.pramaanhire.entity.Job;
+import com.pramaanhire.pramaanhire.entity.User;
+import com.pramaanhire.pramaanhire.enums.ApplicationStatus;
+import com.pramaanhire.pramaanhire.enums.EmploymentType;
+import com.pramaanhire.pramaanhire.enums.EvaluationTaskStatus;
+import com.pramaanhire.pramaanhire.enums.JobStatus;
+import com.pramaanhire.pramaanhire.enums.Role;
+import com.pramaanhire.pramaanhire.repository.AiEvaluationTaskRepository;
+import com.pramaanhire.pramaanhire.repository.ApplicationRepository;
+import com.pramaanhire.pramaanhire.repository.JobRepository;
+import com.pramaanhire.pramaanhire.repository.UserRepository;
+import com.pramaanhire.pramaanhire.service.AiEvaluationService;
+import com.pramaanhire.pramaanhire.service.AiRetryScheduler;
+import com.pramaanhire.pramaanhire.service.EmailService;
+import com.pramaanhire.pramaanhire.service.EvaluationTaskService;
+import com.pramaanhire.pramaanhire.service.HrActionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * "Evaluate now" polls the queue from an after-commit callback. The claim made there must be committed,
+ * otherwise the next scheduled poll finds the task still pending and evaluates it a second time.
+ */
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+class ExpeditedEvaluationClaimTest {
+
+    @Autowired
+    private HrActionService hrActionService;
+
+    @Autowired
+    private AiRetryScheduler aiRetryScheduler;
+
+    @Autowired
+    private EvaluationTaskService evaluationTaskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private AiEvaluationTaskRepository taskRepository;
+
+    @MockBean
+    private AiEvaluationService aiEvaluationService;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void expeditedTaskIsClaimedExactlyOnce() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User hr = userRepository.save(user("expedite-hr-" + run + "@example.test", Role.HR));
+        User candidate = userRepository.save(user("expedite-" + run + "@example.test", Role.CANDIDATE));
+        Job job = jobRepository.save(Job.builder()
+                .hr(hr)
+                .title("Backend Engineer")
+                .description("Build and operate Java services with Spring Boot and PostgreSQL.")
+                .location("Remote")
+                .employmentType(EmploymentType.FULL_TIME)
+                .status(JobStatus.OPEN)
+                .questions(new ArrayList<>())
+                .build());
+        Application application = applicationRepository.save(Application.builder()
+                .job(job)
+                .candidate(candidate)
+                .resumeUrl("resume-" + run + ".pdf")
+                .status(ApplicationStatus.SUBMITTED)
+                .answers(new ArrayList<>())
+                .build());
+        evaluationTaskService.enqueuePending(application, AiEvaluationTask.PRIORITY_NORMAL);
+
+        hrActionService.evaluateNow(application.getId(), hr.getId());
+
+        AiEvaluationTask task = taskRepository.findByApplicationId(application.getId()).orElseThrow();
+        assertThat(task.getStatus()).isEqualTo(EvaluationTaskStatus.IN_PROGRESS);
+        assertThat(task.getAttempts()).isEqualTo(1);
+
+        // The next scheduled poll must find nothing left to claim for this application
+        aiRetryScheduler.retryFailedEvaluations();
+
+        verify(aiEvaluationService, times(1)).evaluateApplication(application.getId());
+        assertThat(taskRepository.findByApplicationId(application.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+    }
+
+    private static User user(String email, Role role) {
+        return User.builder()
+                .email(email)
+                .password("test")
+                .role(role)
+                .fullName(email.substring(0, email.indexOf('@')))
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.pramaanhire.pramaanhire.controller;
+
+import com.pramaanhire.pramaanhire.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileControllerTest {
+
+    private static final String FILE_NAME = "resume.pdf";
+    private static final String ETAG = "\"resume-v1\"";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    // Whole seconds, as HTTP dates cannot carry anything finer
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @TempDir
+    Path uploadDir;
+
+    private FileController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.write(uploadDir.resolve(FILE_NAME), CONTENT);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(LAST_MODIFIED));
+
+        FileStorageService fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.locate(FILE_NAME)).thenReturn(file);
+        when(fileStorageService.etag(eq(FILE_NAME), any())).thenReturn(ETAG);
+        controller = new FileController(fileStorageService);
+    }
+
+    @Test
+    void servesTheWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = download(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentType()).isEqualTo("application/pdf");
+    }
+
+    @Test
+    void servesASingleRange() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void servesASuffixRange() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void rejectsARangePastTheEnd() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void ignoresMalformedAndMultipleRanges() throws Exception {
+        for (String range : new String[] {"bytes=oops", "bytes=0-1,4-5"}) {
+            MockHttpServletRequest request = request();
+            request.addHeader(HttpHeaders.RANGE, range);
+
+            MockHttpServletResponse response = download(request);
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void honoursTheRangeWhenIfRangeMatchesTheEtag() throws Exception {
+        assertThat(rangeWithIfRange(ETAG).getStatus()).isEqualTo(206);
+        assertThat(rangeWithIfRange("\"resume-v0\"").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void honoursTheRangeOnlyWhenIfRangeDateIsExactlyLastModified() throws Exception {
+        assertThat(rangeWithIfRange(httpDate(LAST_MODIFIED)).getStatus()).isEqualTo(206);
+        assertThat(rangeWithIfRange(httpDate(LAST_MODIFIED + 60_000)).getStatus()).isEqualTo(200);
+        assertThat(rangeWithIfRange(httpDate(LAST_MODIFIED - 60_000)).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWithNotModified() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse rangeWithIfRange(String ifRange) throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        return download(request);
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.downloadFile(FILE_NAME, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/files/" + FILE_NAME);
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+    }
+}
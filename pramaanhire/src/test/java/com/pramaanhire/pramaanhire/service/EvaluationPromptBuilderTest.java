@@ -0,0 +1,72 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.EvaluationPrompt;
+import com.pramaanhire.pramaanhire.dto.JobPromptContext;
+import com.pramaanhire.pramaanhire.util.TokenEstimator;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvaluationPromptBuilderTest {
+
+    private static final int MAX_TOKENS = 600;
+    private static final String DESCRIPTION = "Backend engineer building Java services. ".repeat(10);
+
+    private final EvaluationPromptBuilder builder = new EvaluationPromptBuilder(new ResumeCompactor(), MAX_TOKENS, 50, 300);
+
+    @Test
+    void batchStopsAtTheTokenBudget() {
+        Map<Long, EvaluationPrompt> prompts = new LinkedHashMap<>();
+        for (long id = 1; id <= 5; id++) {
+            prompts.put(id, prompt("Resume of candidate " + id + ". " + "Spring Boot, PostgreSQL. ".repeat(20), DESCRIPTION));
+        }
+
+        EvaluationPromptBuilder.BatchPrompt batch = builder.buildBatchPrompt(job(), prompts);
+
+        assertThat(batch.applicationIds()).isNotEmpty().hasSizeLessThan(5).startsWith(1L);
+        assertThat(TokenEstimator.estimate(batch.text())).isLessThanOrEqualTo(MAX_TOKENS);
+        assertThat(batch.text()).contains("applicationId=" + batch.applicationIds().get(batch.applicationIds().size() - 1))
+                .doesNotContain("applicationId=5");
+    }
+
+    @Test
+    void firstCandidateIsAlwaysTaken() {
+        Map<Long, EvaluationPrompt> prompts = new LinkedHashMap<>();
+        prompts.put(7L, prompt("x".repeat(MAX_TOKENS * 8), DESCRIPTION));
+        prompts.put(8L, prompt("short resume", DESCRIPTION));
+
+        assertThat(builder.buildBatchPrompt(job(), prompts).applicationIds()).containsExactly(7L);
+    }
+
+    @Test
+    void sharedDescriptionIsTheShortestTheSectionsWereBudgetedAgainst() {
+        String truncated = DESCRIPTION.substring(0, 40) + "\n[...truncated]";
+        Map<Long, EvaluationPrompt> prompts = new LinkedHashMap<>();
+        prompts.put(1L, prompt("first resume", DESCRIPTION));
+        prompts.put(2L, prompt("second resume", truncated));
+
+        EvaluationPromptBuilder.BatchPrompt batch = builder.buildBatchPrompt(job(), prompts);
+
+        assertThat(batch.applicationIds()).containsExactly(1L, 2L);
+        assertThat(batch.text()).contains("Job Description:\n" + truncated).doesNotContain(DESCRIPTION);
+    }
+
+    private static EvaluationPrompt prompt(String candidateSection, String jobDescription) {
+        return EvaluationPrompt.builder()
+                .candidateSection(candidateSection)
+                .jobDescription(jobDescription)
+                .build();
+    }
+
+    private static JobPromptContext job() {
+        return JobPromptContext.builder()
+                .jobId(1L)
+                .title("Backend Engineer")
+                .description(DESCRIPTION)
+                .questions(Map.of())
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.dto.ClaimCandidate;
+import com.pramaanhire.pramaanhire.entity.AiEvaluationTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FairTaskSelectorTest {
+
+    private static final double URGENT = 3600.0;
+
+    private final AtomicLong taskIds = new AtomicLong();
+    // 24 hour urgent window, urgent jobs get four times the share, low priority waits at most an hour
+    private final FairTaskSelector selector = new FairTaskSelector(24, 4, 3600);
+
+    @Test
+    void expressTasksComeFirstLongestWaitingFirst() {
+        List<ClaimCandidate> candidates = List.of(
+                candidate(1, 10, AiEvaluationTask.PRIORITY_NORMAL, null, 500),
+                candidate(1, 10, AiEvaluationTask.PRIORITY_EXPRESS, null, 5),
+                candidate(1, 10, AiEvaluationTask.PRIORITY_EXPRESS, null, 50),
+                candidate(1, 10, AiEvaluationTask.PRIORITY_EXPRESS, null, 20));
+
+        List<ClaimCandidate> selected = selector.select(candidates, 2, 1);
+
+        assertThat(selected).extracting(ClaimCandidate::getWaitingSeconds).containsExactly(50.0, 20.0, 500.0);
+    }
+
+    @Test
+    void lowPriorityTasksOnlyFillWhatNormalTasksLeave() {
+        List<ClaimCandidate> candidates = List.of(
+                candidate(1, 10, AiEvaluationTask.PRIORITY_LOW, null, 900),
+                candidate(1, 10, AiEvaluationTask.PRIORITY_NORMAL, null, 1),
+                candidate(2, 20, AiEvaluationTask.PRIORITY_NORMAL, null, 1));
+
+        assertThat(selector.select(candidates, 0, 2))
+                .extracting(ClaimCandidate::getPriority)
+                .containsOnly(AiEvaluationTask.PRIORITY_NORMAL);
+        assertThat(selector.select(candidates, 0, 3))
+                .extracting(ClaimCandidate::getPriority)
+                .containsExactly(AiEvaluationTask.PRIORITY_NORMAL, AiEvaluationTask.PRIORITY_NORMAL,
+                        AiEvaluationTask.PRIORITY_LOW);
+    }
+
+    @Test
+    void lowPriorityTasksThatWaitedTooLongOrAreUrgentCompeteAsNormal() {
+        List<ClaimCandidate> candidates = new ArrayList<>();
+        candidates.addAll(tasks(1, 10, 5, null));
+        candidates.add(candidate(2, 20, AiEvaluationTask.PRIORITY_LOW, null, 4000));
+        candidates.add(candidate(3, 30, AiEvaluationTask.PRIORITY_LOW, URGENT, 1));
+        candidates.add(candidate(4, 40, AiEvaluationTask.PRIORITY_LOW, null, 1));
+
+        List<ClaimCandidate> selected = selector.select(candidates, 0, 3);
+
+        assertThat(selected).extracting(ClaimCandidate::getHrId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void ownersAlternateRegardlessOfBacklogSize() {
+        List<ClaimCandidate> candidates = new ArrayList<>();
+        candidates.addAll(tasks(1, 10, 50, null));
+        candidates.addAll(tasks(1, 11, 50, null));
+        candidates.addAll(tasks(2, 20, 2, null));
+
+        List<ClaimCandidate> selected = selector.select(candidates, 0, 4);
+
+        assertThat(selected).extracting(ClaimCandidate::getHrId).containsExactly(1L, 2L, 1L, 2L);
+    }
+
+    @Test
+    void jobsOfOneOwnerShareEqually() {
+        List<ClaimCandidate> candidates = new ArrayList<>();
+        candidates.addAll(tasks(1, 10, 100, null));
+        candidates.addAll(tasks(1, 11, 3, null));
+
+        Map<Long, Long> perJob = countBy(selector.select(candidates, 0, 6), ClaimCandidate::getJobId);
+
+        assertThat(perJob).containsEntry(10L, 3L).containsEntry(11L, 3L);
+    }
+
+    @Test
+    void jobsCloseToTheirDeadlineGetTheUrgentWeight() {
+        List<ClaimCandidate> candidates = new ArrayList<>();
+        candidates.addAll(tasks(1, 10, 20, URGENT));
+        candidates.addAll(tasks(1, 11, 20, null));
+
+        Map<Long, Long> perJob = countBy(selector.select(candidates, 0, 10), ClaimCandidate::getJobId);
+
+        assertThat(perJob).containsEntry(10L, 8L).containsEntry(11L, 2L);
+    }
+
+    @Test
+    void anOwnerServedInThePreviousPollWaitsItsTurn() {
+        selector.select(tasks(1, 10, 3, null), 0, 3);
+
+        List<ClaimCandidate> candidates = new ArrayList<>();
+        candidates.addAll(tasks(1, 10, 5, null));
+        candidates.addAll(tasks(2, 20, 5, null));
+
+        assertThat(selector.select(candidates, 0, 1)).extracting(ClaimCandidate::getHrId).containsExactly(2L);
+    }
+
+    private List<ClaimCandidate> tasks(long hrId, long jobId, int count, Double secondsToJobDeadline) {
+        List<ClaimCandidate> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(candidate(hrId, jobId, AiEvaluationTask.PRIORITY_NORMAL, secondsToJobDeadline, 1));
+        }
+        return tasks;
+    }
+
+    private static Map<Long, Long> countBy(List<ClaimCandidate> candidates, Function<ClaimCandidate, Long> key) {
+        return candidates.stream().collect(Collectors.groupingBy(key, Collectors.counting()));
+    }
+
+    private ClaimCandidate candidate(long hrId, long jobId, int priority, Double secondsToJobDeadline, double waitingSeconds) {
+        long taskId = taskIds.incrementAndGet();
+        return new ClaimCandidate() {
+            @Override
+            public Long getTaskId() {
+                return taskId;
+            }
+
+            @Override
+            public Long getJobId() {
+                return jobId;
+            }
+
+            @Override
+            public Long getHrId() {
+                return hrId;
+            }
+
+            @Override
+            public Integer getPriority() {
+                return priority;
+            }
+
+            @Override
+            public Double getSecondsToDeadline() {
+                return null;
+            }
+
+            @Override
+            public Double getSecondsToJobDeadline() {
+                return secondsToJobDeadline;
+            }
+
+            @Override
+            public Double getWaitingSeconds() {
+                return waitingSeconds;
+            }
+        };
+    }
+}
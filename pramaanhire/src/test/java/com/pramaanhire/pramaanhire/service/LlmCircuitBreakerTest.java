@@ -0,0 +1,82 @@
+package com.pramaanhire.pramaanhire.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LlmCircuitBreakerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(meterRegistry, 3, 60);
+
+        fail(breaker, 2);
+        assertThat(breaker.tryAcquire()).isTrue();
+        fail(breaker, 1);
+
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.isCallPermitted()).isFalse();
+        assertThat(breaker.retryAt()).isAfter(LocalDateTime.now().plusSeconds(50));
+        assertThat(meterRegistry.get("ai.llm.circuit.opened").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(meterRegistry, 3, 60);
+
+        fail(breaker, 2);
+        breaker.onSuccess();
+        fail(breaker, 2);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void halfOpenLetsExactlyOneProbeThrough() {
+        // Zero open time, so the breaker is half-open as soon as it has opened
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(meterRegistry, 1, 0);
+        fail(breaker, 1);
+
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedProbeOpensTheCircuitAgain() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(meterRegistry, 1, 0);
+        fail(breaker, 1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(meterRegistry.get("ai.llm.circuit.opened").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void ignoredProbeFreesTheSlotForAnotherProbe() {
+        LlmCircuitBreaker breaker = new LlmCircuitBreaker(meterRegistry, 1, 0);
+        fail(breaker, 1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    private static void fail(LlmCircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pramaanhire.pramaanhire.exception.LocalThrottleException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class LlmGatewayTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChatClient chatClient = mock(ChatClient.class);
+    // 10 tokens per minute and a 50 ms wait: once the bucket is spent no permit arrives in time
+    private final LlmRateLimiter rateLimiter = new LlmRateLimiter(meterRegistry, 600, 10, 50, 2, 1, 8, 15_000);
+    // Opens on the first failure it is told about
+    private final LlmCircuitBreaker circuitBreaker = new LlmCircuitBreaker(meterRegistry, 1, 60);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void localPermitTimeoutDoesNotOpenTheCircuit() {
+        LlmGateway gateway = new LlmGateway(chatClient, mock(ObjectProvider.class), rateLimiter, circuitBreaker,
+                new EvaluationResponseParser(new ObjectMapper()), new ThreadPoolTaskExecutor(), meterRegistry,
+                600, true, 120, "", 0.95, 2000, 30000);
+        rateLimiter.execute(10, () -> "spends the token bucket");
+
+        assertThatThrownBy(() -> gateway.complete("Evaluate this resume", "primary-model", Sinks.one()))
+                .isInstanceOf(LocalThrottleException.class);
+
+        verifyNoInteractions(chatClient);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(meterRegistry.get("ai.llm.circuit.opened").counter().count()).isZero();
+    }
+}
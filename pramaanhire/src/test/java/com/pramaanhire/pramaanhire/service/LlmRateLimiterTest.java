@@ -0,0 +1,138 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.pramaanhire.pramaanhire.exception.LocalThrottleException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LlmRateLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void healthyCallsRaiseTheLimitAdditively() {
+        LlmRateLimiter limiter = limiter(1000, 2, 8, 15_000);
+
+        assertThat(limiter.execute(10, () -> "ok")).isEqualTo("ok");
+
+        assertThat(concurrencyLimit()).isCloseTo(2.5, within(1e-9));
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void rateLimitErrorHalvesTheLimit() {
+        LlmRateLimiter limiter = limiter(1000, 4, 8, 15_000);
+
+        assertThatThrownBy(() -> limiter.execute(10, () -> {
+            throw new RuntimeException("429 Too Many Requests");
+        })).hasMessageContaining("429");
+
+        assertThat(concurrencyLimit()).isEqualTo(2.0);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void slowCallsLowerTheLimitButNeverBelowTheMinimum() {
+        LlmRateLimiter limiter = limiter(1000, 1, 8, 0);
+
+        limiter.execute(10, () -> sleep(5));
+
+        assertThat(concurrencyLimit()).isEqualTo(1.0);
+    }
+
+    @Test
+    void otherFailuresLeaveTheLimitAlone() {
+        LlmRateLimiter limiter = limiter(1000, 2, 8, 15_000);
+
+        assertThatThrownBy(() -> limiter.execute(10, () -> {
+            throw new IllegalStateException("bad gateway");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(concurrencyLimit()).isEqualTo(2.0);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void callsBeyondTheConcurrencyLimitWait() throws Exception {
+        LlmRateLimiter limiter = limiter(1000, 1, 1, 15_000);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> limiter.execute(10, () -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The only slot is taken and the one-second concurrency wait exceeds the 300 ms allowance
+        assertThatThrownBy(() -> limiter.execute(10, () -> "second"))
+                .isInstanceOf(LocalThrottleException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(limiter.execute(10, () -> "third")).isEqualTo("third");
+    }
+
+    @Test
+    void tokenBudgetIsChargedPerCall() {
+        LlmRateLimiter limiter = limiter(1000, 2, 8, 15_000);
+
+        limiter.execute(1000, () -> "first");
+
+        // Refilling 1000 tokens per minute takes far longer than the 300 ms allowance
+        assertThatThrownBy(() -> limiter.execute(500, () -> "second"))
+                .isInstanceOf(LocalThrottleException.class);
+    }
+
+    @Test
+    void cancelledCallNeverRuns() {
+        LlmRateLimiter limiter = limiter(1000, 2, 8, 15_000);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThatThrownBy(() -> limiter.execute(10, () -> true, () -> ran.getAndSet(true)))
+                .isInstanceOf(CancellationException.class);
+
+        assertThat(ran).isFalse();
+        assertThat(inFlight()).isZero();
+    }
+
+    private LlmRateLimiter limiter(int tokensPerMinute, int initialConcurrency, int maxConcurrency, long latencyThresholdMs) {
+        return new LlmRateLimiter(meterRegistry, 600, tokensPerMinute, 300,
+                initialConcurrency, 1, maxConcurrency, latencyThresholdMs);
+    }
+
+    private double concurrencyLimit() {
+        return meterRegistry.get("ai.llm.concurrency.limit").gauge().value();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("ai.llm.concurrency.in-flight").gauge().value();
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slow";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
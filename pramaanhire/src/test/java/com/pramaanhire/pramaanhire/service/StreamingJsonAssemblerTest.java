@@ -0,0 +1,71 @@
+package com.pramaanhire.pramaanhire.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pramaanhire.pramaanhire.exception.PermanentEvaluationException;
+import com.pramaanhire.pramaanhire.exception.TransientEvaluationException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingJsonAssemblerTest {
+
+    private final StreamingJsonAssembler assembler = new StreamingJsonAssembler(new ObjectMapper());
+
+    @Test
+    void assemblesAnObjectSplitAcrossChunks() {
+        assertThat(assembler.feed("{\"sum")).isFalse();
+        assertThat(assembler.feed("mary\": \"o")).isFalse();
+        assertThat(assembler.feed("k\", \"score\": 8")).isFalse();
+        assertThat(assembler.feed("5}")).isTrue();
+
+        JsonNode result = assembler.result();
+        assertThat(result.path("summary").asText()).isEqualTo("ok");
+        assertThat(result.path("score").asInt()).isEqualTo(85);
+    }
+
+    @Test
+    void skipsPreambleAndFences() {
+        assertThat(assembler.feed("Here is the evaluation:\n```json\n")).isFalse();
+        assertThat(assembler.feed("[{\"applicationId\": 1}]\n```")).isTrue();
+
+        assertThat(assembler.result().isArray()).isTrue();
+        assertThat(assembler.result().get(0).path("applicationId").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    void ignoresEverythingAfterTheRootValue() {
+        assertThat(assembler.feed("{\"score\": 1} and some trailing chatter {")).isTrue();
+        assertThat(assembler.feed("more")).isTrue();
+
+        assertThat(assembler.result().path("score").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void failsAsSoonAsTheSyntaxBreaks() {
+        assertThatThrownBy(() -> assembler.feed("{\"score\": 80,, \"summary\""))
+                .isInstanceOf(PermanentEvaluationException.class);
+    }
+
+    @Test
+    void rejectsLongChatterBeforeAnyJson() {
+        assertThatThrownBy(() -> assembler.feed("I cannot evaluate this resume because ".repeat(10)))
+                .isInstanceOf(PermanentEvaluationException.class);
+    }
+
+    @Test
+    void responseWithoutJsonIsPermanent() {
+        assembler.feed("No JSON here.");
+
+        assertThatThrownBy(assembler::result).isInstanceOf(PermanentEvaluationException.class);
+    }
+
+    @Test
+    void truncatedResponseIsTransient() {
+        assembler.feed("{\"score\": 80, \"summary\": \"Strong back");
+
+        assertThat(assembler.isComplete()).isFalse();
+        assertThatThrownBy(assembler::result).isInstanceOf(TransientEvaluationException.class);
+    }
+}
@@ -0,0 +1,340 @@
+package com.pramaanhire.pramaanhire.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for an OpenAI-compatible chat-completions endpoint. Point {@code spring.ai.openai.base-url}
+ * at {@link #baseUrl()}.
+ * <p>
+ * Everything is deterministic for a given seed: the evaluation returned for a candidate depends only on
+ * the candidate's part of the prompt, and the latency and injected faults for a request depend only on the
+ * prompt and how many times it has been sent before. A retried request can therefore succeed where the
+ * first attempt got a 429, and two runs with the same seed see the same outcomes.
+ * Both blocking and streaming ({@code "stream": true}) requests are supported, as are batched prompts.
+ */
+public class StubLlmServer implements AutoCloseable {
+
+    private static final Pattern CANDIDATE_HEADER = Pattern.compile("=== Candidate applicationId=(\\d+) ===");
+    private static final int STREAM_CHUNK_LENGTH = 16;
+
+    /** Time before the first byte of a response. */
+    public interface LatencyProfile {
+        long sampleMillis(Random random);
+
+        static LatencyProfile fixed(long millis) {
+            return random -> millis;
+        }
+
+        static LatencyProfile uniform(long minMillis, long maxMillis) {
+            return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+        }
+
+        // Long-tailed, like real LLM endpoints: most calls near the median, a few much slower
+        static LatencyProfile logNormal(long medianMillis, double sigma) {
+            return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Integer, AtomicInteger> attemptsByPrompt = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+
+    private final LatencyProfile latency;
+    private final double rateLimitRatio;
+    private final double malformedRatio;
+    private final long seed;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubLlmServer(Builder builder) throws IOException {
+        this.latency = builder.latency;
+        this.rateLimitRatio = builder.rateLimitRatio;
+        this.malformedRatio = builder.malformedRatio;
+        this.seed = builder.seed;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", builder.port), 0);
+        this.executor = Executors.newFixedThreadPool(builder.threads);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", this::handle);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public StubLlmServer start() {
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long rateLimited() {
+        return rateLimited.get();
+    }
+
+    public long malformed() {
+        return malformed.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            String prompt = userPrompt(request);
+            String model = request.path("model").asText("stub-model");
+            boolean stream = request.path("stream").asBoolean(false);
+
+            int promptHash = prompt.hashCode();
+            int attempt = attemptsByPrompt.computeIfAbsent(promptHash, h -> new AtomicInteger()).getAndIncrement();
+            Random random = new Random(seed ^ ((long) promptHash << 16) ^ attempt);
+
+            sleep(latency.sampleMillis(random));
+
+            if (random.nextDouble() < rateLimitRatio) {
+                rateLimited.incrementAndGet();
+                sendRateLimited(exchange);
+                return;
+            }
+
+            String content;
+            if (random.nextDouble() < malformedRatio) {
+                malformed.incrementAndGet();
+                content = malformedContent(random);
+            } else {
+                content = evaluationContent(prompt);
+            }
+
+            if (stream) {
+                sendStream(exchange, model, content);
+            } else {
+                sendCompletion(exchange, model, prompt, content);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String userPrompt(JsonNode request) {
+        StringBuilder sb = new StringBuilder();
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                sb.append(message.path("content").asText());
+            }
+        }
+        return sb.toString();
+    }
+
+    // Same shape as the evaluation schema in EvaluationPromptBuilder; an array for batched prompts
+    private String evaluationContent(String prompt) throws IOException {
+        Matcher matcher = CANDIDATE_HEADER.matcher(prompt);
+        if (!matcher.find()) {
+            return objectMapper.writeValueAsString(evaluation(prompt.hashCode()));
+        }
+
+        ArrayNode array = objectMapper.createArrayNode();
+        int start = matcher.start();
+        long applicationId = Long.parseLong(matcher.group(1));
+        while (true) {
+            boolean more = matcher.find();
+            String section = prompt.substring(start, more ? matcher.start() : prompt.length());
+            ObjectNode element = evaluation(section.hashCode());
+            element.put("applicationId", applicationId);
+            array.add(element);
+            if (!more) {
+                break;
+            }
+            start = matcher.start();
+            applicationId = Long.parseLong(matcher.group(1));
+        }
+        return objectMapper.writeValueAsString(array);
+    }
+
+    private ObjectNode evaluation(int hash) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("score", Math.floorMod(hash, 101));
+        node.put("summary", "Stub evaluation " + Integer.toHexString(hash));
+        node.put("strengths", "Relevant experience, Clear communication");
+        node.put("weaknesses", "Limited leadership examples");
+        node.put("improvementTips", "Quantify the impact of past projects");
+        node.put("confidenceScore", 60 + Math.floorMod(hash >>> 8, 40));
+        return node;
+    }
+
+    // Either prose with no JSON at all or an object cut off halfway, the two failure modes seen in practice
+    private String malformedContent(Random random) {
+        if (random.nextBoolean()) {
+            return "I'm sorry, but I can't provide a structured evaluation for this candidate without more "
+                    + "information about the role requirements and the candidate's background. Please provide "
+                    + "additional details so that I can give a fair and accurate assessment.";
+        }
+        return "{\"score\": 72, \"summary\": \"Strong backend profile with";
+    }
+
+    private void sendCompletion(HttpExchange exchange, String model, String prompt, String content) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("id", "chatcmpl-stub-" + requests.get());
+        body.put("object", "chat.completion");
+        body.put("created", System.currentTimeMillis() / 1000);
+        body.put("model", model);
+        ObjectNode choice = body.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        int promptTokens = prompt.length() / 4;
+        int completionTokens = content.length() / 4;
+        body.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void sendStream(HttpExchange exchange, String model, String content) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String id = "chatcmpl-stub-" + requests.get();
+        try {
+            for (int i = 0; i < content.length(); i += STREAM_CHUNK_LENGTH) {
+                String piece = content.substring(i, Math.min(content.length(), i + STREAM_CHUNK_LENGTH));
+                writeEvent(out, chunk(id, model, piece, null));
+            }
+            writeEvent(out, chunk(id, model, null, "stop"));
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            // The client cancelled the stream (JSON complete or hedge lost); nothing to clean up
+        }
+    }
+
+    private ObjectNode chunk(String id, String model, String piece, String finishReason) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", id);
+        node.put("object", "chat.completion.chunk");
+        node.put("created", System.currentTimeMillis() / 1000);
+        node.put("model", model);
+        ObjectNode choice = node.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode delta = choice.putObject("delta");
+        if (piece != null) {
+            delta.put("role", "assistant").put("content", piece);
+        }
+        if (finishReason != null) {
+            choice.put("finish_reason", finishReason);
+        } else {
+            choice.putNull("finish_reason");
+        }
+        return node;
+    }
+
+    private void writeEvent(OutputStream out, JsonNode node) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(node) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void sendRateLimited(HttpExchange exchange) throws IOException {
+        byte[] bytes = ("{\"error\":{\"message\":\"Rate limit reached for model. Please try again in 1s.\","
+                + "\"type\":\"tokens\",\"code\":\"rate_limit_exceeded\"}}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.sendResponseHeaders(429, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Builder {
+        private LatencyProfile latency = LatencyProfile.fixed(0);
+        private double rateLimitRatio;
+        private double malformedRatio;
+        private long seed = 42;
+        private int port;
+        private int threads = 64;
+
+        public Builder latency(LatencyProfile latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /** Fraction of requests answered with HTTP 429. */
+        public Builder rateLimitRatio(double rateLimitRatio) {
+            this.rateLimitRatio = rateLimitRatio;
+            return this;
+        }
+
+        /** Fraction of successful requests whose content is not valid evaluation JSON. */
+        public Builder malformedRatio(double malformedRatio) {
+            this.malformedRatio = malformedRatio;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Defaults to a free ephemeral port. */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /** Concurrent requests the stub can hold open (each sleeps for its latency). */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public StubLlmServer build() throws IOException {
+            return new StubLlmServer(this);
+        }
+    }
+}